@@ -0,0 +1,45 @@
+package io.github.luidmidev.omnisearch.jpa.benchmark;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Entity
+@Data
+@NoArgsConstructor
+public class Customer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String name;
+
+    private String email;
+
+    private boolean active;
+
+    private int orders;
+
+    @Enumerated(EnumType.STRING)
+    private Level level;
+
+    private LocalDateTime createdAt;
+
+    @ElementCollection
+    private Set<String> tags = new HashSet<>();
+
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @JoinColumn(name = "customer_id")
+    private List<Address> addresses = new ArrayList<>();
+
+    public enum Level {
+        LOW, MEDIUM, HIGH
+    }
+}
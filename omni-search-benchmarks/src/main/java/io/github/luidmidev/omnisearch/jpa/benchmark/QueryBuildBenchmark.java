@@ -0,0 +1,96 @@
+package io.github.luidmidev.omnisearch.jpa.benchmark;
+
+import io.github.luidmidev.omnisearch.core.OmniSearchOptions;
+import io.github.luidmidev.omnisearch.jpa.JpaOmniSearch;
+import io.github.luidmidev.omnisearch.jpa.JpqlOmniSearch;
+import io.github.luidmidev.omnisearch.jpa.QueryTemplateCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.TypedQuery;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time {@link JpqlOmniSearch} and {@link JpaOmniSearch} take to create the executable query of a
+ * request, with and without a {@link QueryTemplateCache}. No query is executed, the database is only used by the
+ * provider to boot.
+ * <p>
+ * Run with {@code mvn -P benchmarks package && java -jar omni-search-benchmarks/target/benchmarks.jar QueryBuildBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBuildBenchmark {
+
+    @Param({
+            "name==Alice",
+            "name==Al*;active==true;orders>=3",
+            "level=in=(LOW,HIGH),addresses.city==Quito;createdAt=between=(2024-01-01,2024-12-31);id=out=(1,2,3,4,5,6,7)"
+    })
+    public String conditions;
+
+    @Param({"", "alice example"})
+    public String search;
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private OmniSearchOptions options;
+    private JpaOmniSearch criteriaSearch;
+    private JpaOmniSearch cachedCriteriaSearch;
+    private JpqlOmniSearch jpqlSearch;
+    private JpqlOmniSearch cachedJpqlSearch;
+
+    @Setup
+    public void setUp() {
+        emf = Persistence.createEntityManagerFactory("benchmark-pu");
+        em = emf.createEntityManager();
+        options = new OmniSearchOptions()
+                .search(search)
+                .joins("addresses")
+                .conditions(conditions);
+
+        criteriaSearch = new JpaOmniSearch(em);
+        cachedCriteriaSearch = new JpaOmniSearch(em);
+        cachedCriteriaSearch.setTemplateCache(new QueryTemplateCache());
+        jpqlSearch = new JpqlOmniSearch(em);
+        cachedJpqlSearch = new JpqlOmniSearch(em);
+        cachedJpqlSearch.setTemplateCache(new QueryTemplateCache());
+    }
+
+    @TearDown
+    public void tearDown() {
+        em.close();
+        emf.close();
+    }
+
+    @Benchmark
+    public TypedQuery<Customer> criteria() {
+        return criteriaSearch.createSearchQuery(Customer.class, options);
+    }
+
+    /**
+     * Criteria queries of a cached shape, whose predicates are still built to collect their values.
+     */
+    @Benchmark
+    public TypedQuery<Customer> criteriaCached() {
+        return cachedCriteriaSearch.createSearchQuery(Customer.class, options);
+    }
+
+    @Benchmark
+    public TypedQuery<Customer> jpql() {
+        return jpqlSearch.createSearchQuery(Customer.class, options);
+    }
+
+    /**
+     * JPQL texts of a cached shape, of which only the values are collected.
+     */
+    @Benchmark
+    public TypedQuery<Customer> jpqlCached() {
+        return cachedJpqlSearch.createSearchQuery(Customer.class, options);
+    }
+}
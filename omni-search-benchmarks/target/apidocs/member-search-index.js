@@ -0,0 +1 @@
+memberSearchIndex = [{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"Address","l":"Address()","u":"%3Cinit%3E()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"QueryBuildBenchmark","l":"conditions"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteria_jmhTest","l":"criteria_AverageTime(InfraControl, ThreadParams)","u":"criteria_AverageTime(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteria_jmhTest","l":"criteria_avgt_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, QueryBuildBenchmark_jmhType)","u":"criteria_avgt_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteria_jmhTest","l":"criteria_sample_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, SampleBuffer, int, long, int, QueryBuildBenchmark_jmhType)","u":"criteria_sample_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,org.openjdk.jmh.util.SampleBuffer,int,long,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteria_jmhTest","l":"criteria_SampleTime(InfraControl, ThreadParams)","u":"criteria_SampleTime(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteria_jmhTest","l":"criteria_SingleShotTime(InfraControl, ThreadParams)","u":"criteria_SingleShotTime(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteria_jmhTest","l":"criteria_ss_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, int, QueryBuildBenchmark_jmhType)","u":"criteria_ss_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteria_jmhTest","l":"criteria_Throughput(InfraControl, ThreadParams)","u":"criteria_Throughput(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteria_jmhTest","l":"criteria_thrpt_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, QueryBuildBenchmark_jmhType)","u":"criteria_thrpt_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"QueryBuildBenchmark","l":"criteria()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteriaCached_jmhTest","l":"criteriaCached_AverageTime(InfraControl, ThreadParams)","u":"criteriaCached_AverageTime(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteriaCached_jmhTest","l":"criteriaCached_avgt_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, QueryBuildBenchmark_jmhType)","u":"criteriaCached_avgt_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteriaCached_jmhTest","l":"criteriaCached_sample_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, SampleBuffer, int, long, int, QueryBuildBenchmark_jmhType)","u":"criteriaCached_sample_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,org.openjdk.jmh.util.SampleBuffer,int,long,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteriaCached_jmhTest","l":"criteriaCached_SampleTime(InfraControl, ThreadParams)","u":"criteriaCached_SampleTime(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteriaCached_jmhTest","l":"criteriaCached_SingleShotTime(InfraControl, ThreadParams)","u":"criteriaCached_SingleShotTime(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteriaCached_jmhTest","l":"criteriaCached_ss_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, int, QueryBuildBenchmark_jmhType)","u":"criteriaCached_ss_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteriaCached_jmhTest","l":"criteriaCached_Throughput(InfraControl, ThreadParams)","u":"criteriaCached_Throughput(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteriaCached_jmhTest","l":"criteriaCached_thrpt_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, QueryBuildBenchmark_jmhType)","u":"criteriaCached_thrpt_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"QueryBuildBenchmark","l":"criteriaCached()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"Customer","l":"Customer()","u":"%3Cinit%3E()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"Customer.Level","l":"HIGH"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpql_jmhTest","l":"jpql_AverageTime(InfraControl, ThreadParams)","u":"jpql_AverageTime(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpql_jmhTest","l":"jpql_avgt_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, QueryBuildBenchmark_jmhType)","u":"jpql_avgt_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpql_jmhTest","l":"jpql_sample_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, SampleBuffer, int, long, int, QueryBuildBenchmark_jmhType)","u":"jpql_sample_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,org.openjdk.jmh.util.SampleBuffer,int,long,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpql_jmhTest","l":"jpql_SampleTime(InfraControl, ThreadParams)","u":"jpql_SampleTime(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpql_jmhTest","l":"jpql_SingleShotTime(InfraControl, ThreadParams)","u":"jpql_SingleShotTime(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpql_jmhTest","l":"jpql_ss_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, int, QueryBuildBenchmark_jmhType)","u":"jpql_ss_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpql_jmhTest","l":"jpql_Throughput(InfraControl, ThreadParams)","u":"jpql_Throughput(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpql_jmhTest","l":"jpql_thrpt_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, QueryBuildBenchmark_jmhType)","u":"jpql_thrpt_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"QueryBuildBenchmark","l":"jpql()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpqlCached_jmhTest","l":"jpqlCached_AverageTime(InfraControl, ThreadParams)","u":"jpqlCached_AverageTime(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpqlCached_jmhTest","l":"jpqlCached_avgt_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, QueryBuildBenchmark_jmhType)","u":"jpqlCached_avgt_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpqlCached_jmhTest","l":"jpqlCached_sample_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, SampleBuffer, int, long, int, QueryBuildBenchmark_jmhType)","u":"jpqlCached_sample_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,org.openjdk.jmh.util.SampleBuffer,int,long,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpqlCached_jmhTest","l":"jpqlCached_SampleTime(InfraControl, ThreadParams)","u":"jpqlCached_SampleTime(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpqlCached_jmhTest","l":"jpqlCached_SingleShotTime(InfraControl, ThreadParams)","u":"jpqlCached_SingleShotTime(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpqlCached_jmhTest","l":"jpqlCached_ss_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, int, QueryBuildBenchmark_jmhType)","u":"jpqlCached_ss_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpqlCached_jmhTest","l":"jpqlCached_Throughput(InfraControl, ThreadParams)","u":"jpqlCached_Throughput(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.infra.ThreadParams)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpqlCached_jmhTest","l":"jpqlCached_thrpt_jmhStub(InfraControl, RawResults, BenchmarkParams, IterationParams, ThreadParams, Blackhole, Control, int, QueryBuildBenchmark_jmhType)","u":"jpqlCached_thrpt_jmhStub(org.openjdk.jmh.runner.InfraControl,org.openjdk.jmh.results.RawResults,org.openjdk.jmh.infra.BenchmarkParams,org.openjdk.jmh.infra.IterationParams,org.openjdk.jmh.infra.ThreadParams,org.openjdk.jmh.infra.Blackhole,org.openjdk.jmh.infra.Control,int,io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated.QueryBuildBenchmark_jmhType)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"QueryBuildBenchmark","l":"jpqlCached()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"Customer.Level","l":"LOW"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"Customer.Level","l":"MEDIUM"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteria_jmhTest","l":"QueryBuildBenchmark_criteria_jmhTest()","u":"%3Cinit%3E()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_criteriaCached_jmhTest","l":"QueryBuildBenchmark_criteriaCached_jmhTest()","u":"%3Cinit%3E()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B1","l":"QueryBuildBenchmark_jmhType_B1()","u":"%3Cinit%3E()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"QueryBuildBenchmark_jmhType_B2()","u":"%3Cinit%3E()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B3","l":"QueryBuildBenchmark_jmhType_B3()","u":"%3Cinit%3E()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType","l":"QueryBuildBenchmark_jmhType()","u":"%3Cinit%3E()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpql_jmhTest","l":"QueryBuildBenchmark_jpql_jmhTest()","u":"%3Cinit%3E()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jpqlCached_jmhTest","l":"QueryBuildBenchmark_jpqlCached_jmhTest()","u":"%3Cinit%3E()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"QueryBuildBenchmark","l":"QueryBuildBenchmark()","u":"%3Cinit%3E()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"readyInvocation"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"readyIteration"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"readyTrial"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"QueryBuildBenchmark","l":"search"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"QueryBuildBenchmark","l":"setUp()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"setupInvocationMutex"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"setupInvocationMutexUpdater"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"setupIterationMutex"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"setupIterationMutexUpdater"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"setupTrialMutex"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"setupTrialMutexUpdater"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"QueryBuildBenchmark","l":"tearDown()"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"tearInvocationMutex"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"tearInvocationMutexUpdater"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"tearIterationMutex"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"tearIterationMutexUpdater"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"tearTrialMutex"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","c":"QueryBuildBenchmark_jmhType_B2","l":"tearTrialMutexUpdater"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"Customer.Level","l":"valueOf(String)","u":"valueOf(java.lang.String)"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","c":"Customer.Level","l":"values()"}];updateSearchResults();
\ No newline at end of file
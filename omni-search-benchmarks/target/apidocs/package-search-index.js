@@ -0,0 +1 @@
+packageSearchIndex = [{"l":"All Packages","u":"allpackages-index.html"},{"l":"io.github.luidmidev.omnisearch.jpa.benchmark"},{"l":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated"}];updateSearchResults();
\ No newline at end of file
@@ -0,0 +1 @@
+typeSearchIndex = [{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","l":"Address"},{"l":"All Classes and Interfaces","u":"allclasses-index.html"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","l":"Customer"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","l":"Customer.Level"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark","l":"QueryBuildBenchmark"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","l":"QueryBuildBenchmark_criteria_jmhTest"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","l":"QueryBuildBenchmark_criteriaCached_jmhTest"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","l":"QueryBuildBenchmark_jmhType"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","l":"QueryBuildBenchmark_jmhType_B1"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","l":"QueryBuildBenchmark_jmhType_B2"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","l":"QueryBuildBenchmark_jmhType_B3"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","l":"QueryBuildBenchmark_jpql_jmhTest"},{"p":"io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated","l":"QueryBuildBenchmark_jpqlCached_jmhTest"}];updateSearchResults();
\ No newline at end of file
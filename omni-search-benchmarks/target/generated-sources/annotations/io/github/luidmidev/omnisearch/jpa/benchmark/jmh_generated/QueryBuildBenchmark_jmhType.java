@@ -0,0 +1,4 @@
+package io.github.luidmidev.omnisearch.jpa.benchmark.jmh_generated;
+public class QueryBuildBenchmark_jmhType extends QueryBuildBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,68 @@
+package io.github.luidmidev.omnisearch.core;
+
+import io.github.luidmidev.omnisearch.core.schemas.BatchResults;
+import io.github.luidmidev.omnisearch.core.schemas.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking counterpart of {@link OmniSearch}, every operation runs in the background and completes the
+ * returned future with its result.
+ */
+public interface AsyncOmniSearch {
+
+    <E> CompletableFuture<List<E>> searchAsync(Class<E> entityClass, OmniSearchOptions options);
+
+    default <E> CompletableFuture<List<E>> searchAsync(Class<E> entityClass, Consumer<OmniSearchOptions> optionsConsumer) {
+        var options = new OmniSearchOptions();
+        optionsConsumer.accept(options);
+        return searchAsync(entityClass, options);
+    }
+
+    <E> CompletableFuture<Long> countAsync(Class<E> entityClass, OmniSearchBaseOptions options);
+
+    default <E> CompletableFuture<Long> countAsync(Class<E> entityClass, Consumer<OmniSearchBaseOptions> optionsConsumer) {
+        var options = new OmniSearchBaseOptions();
+        optionsConsumer.accept(options);
+        return countAsync(entityClass, options);
+    }
+
+    /**
+     * Searches a page and counts the total number of matches concurrently.
+     *
+     * @param entityClass the entity class
+     * @param options     the search options
+     * @return a future of the page and the total number of matches
+     */
+    default <E> CompletableFuture<Page<E>> searchPageAsync(Class<E> entityClass, OmniSearchOptions options) {
+        return searchAsync(entityClass, options).thenCombine(
+                countAsync(entityClass, options),
+                (content, total) -> new Page<>(content, total, options.getPagination())
+        );
+    }
+
+    default <E> CompletableFuture<Page<E>> searchPageAsync(Class<E> entityClass, Consumer<OmniSearchOptions> optionsConsumer) {
+        var options = new OmniSearchOptions();
+        optionsConsumer.accept(options);
+        return searchPageAsync(entityClass, options);
+    }
+
+    /**
+     * Runs the requests concurrently.
+     *
+     * @param requests the requests
+     * @return a future of the result of each request, read through {@link BatchResults#get(SearchRequest)}
+     */
+    default CompletableFuture<BatchResults> batchAsync(List<? extends SearchRequest<?>> requests) {
+        var futures = new ArrayList<CompletableFuture<?>>(requests.size());
+        for (var request : requests) {
+            futures.add(request.runAsync(this));
+        }
+        return CompletableFuture
+                .allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> new BatchResults(requests, futures.stream().map(CompletableFuture::join).toList()));
+    }
+}
@@ -1,7 +1,15 @@
 package io.github.luidmidev.omnisearch.core;
 
+import io.github.luidmidev.omnisearch.core.schemas.BatchResults;
+import io.github.luidmidev.omnisearch.core.schemas.KeysetPage;
+import io.github.luidmidev.omnisearch.core.schemas.KeysetPagination;
+import io.github.luidmidev.omnisearch.core.schemas.Page;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface OmniSearch {
 
@@ -13,6 +21,101 @@ public interface OmniSearch {
         return search(entityClass, options);
     }
 
+    /**
+     * Searches lazily, reading the matches as the returned stream is consumed. The stream holds database
+     * resources and must be closed, preferably with a try-with-resources block.
+     *
+     * @param entityClass the entity class
+     * @param options     the search options
+     * @return a stream of the matching entities
+     */
+    default <E> Stream<E> stream(Class<E> entityClass, OmniSearchOptions options) {
+        return search(entityClass, options).stream();
+    }
+
+    default <E> Stream<E> stream(Class<E> entityClass, Consumer<OmniSearchOptions> optionsConsumer) {
+        var options = new OmniSearchOptions();
+        optionsConsumer.accept(options);
+        return stream(entityClass, options);
+    }
+
+    /**
+     * Searches only the columns of a projection, each match is read into a new instance of the record, whose
+     * component names are the properties to select.
+     *
+     * @param entityClass the entity class
+     * @param projection  the record the matches are read into
+     * @param options     the search options
+     * @return the projections of the matching entities
+     * @throws UnsupportedOperationException if the implementation does not support projections
+     */
+    default <E, R> List<R> search(Class<E> entityClass, Class<R> projection, OmniSearchOptions options) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support projections");
+    }
+
+    default <E, R> List<R> search(Class<E> entityClass, Class<R> projection, Consumer<OmniSearchOptions> optionsConsumer) {
+        var options = new OmniSearchOptions();
+        optionsConsumer.accept(options);
+        return search(entityClass, projection, options);
+    }
+
+    /**
+     * Searches only the given properties, each match is read into a map from property to value, in the order
+     * of the properties.
+     *
+     * @param entityClass the entity class
+     * @param properties  the dot-separated property paths to select
+     * @param options     the search options
+     * @return the selected values of the matching entities
+     * @throws UnsupportedOperationException if the implementation does not support projections
+     */
+    default <E> List<Map<String, Object>> search(Class<E> entityClass, List<String> properties, OmniSearchOptions options) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support projections");
+    }
+
+    default <E> List<Map<String, Object>> search(Class<E> entityClass, List<String> properties, Consumer<OmniSearchOptions> optionsConsumer) {
+        var options = new OmniSearchOptions();
+        optionsConsumer.accept(options);
+        return search(entityClass, properties, options);
+    }
+
+    /**
+     * Searches a page and the total number of matches together.
+     *
+     * @param entityClass the entity class
+     * @param options     the search options
+     * @return the page and the total number of matches
+     */
+    default <E> Page<E> searchPage(Class<E> entityClass, OmniSearchOptions options) {
+        return new Page<>(search(entityClass, options), count(entityClass, options), options.getPagination());
+    }
+
+    default <E> Page<E> searchPage(Class<E> entityClass, Consumer<OmniSearchOptions> optionsConsumer) {
+        var options = new OmniSearchOptions();
+        optionsConsumer.accept(options);
+        return searchPage(entityClass, options);
+    }
+
+    /**
+     * Searches a page using keyset pagination, the offset {@link OmniSearchOptions#getPagination() pagination}
+     * of the options is ignored.
+     *
+     * @param entityClass the entity class
+     * @param options     the search options
+     * @param pagination  the page size and the continuation token of the previous page
+     * @return the page with the continuation token of the next page
+     * @throws UnsupportedOperationException if the implementation does not support keyset pagination
+     */
+    default <E> KeysetPage<E> searchKeyset(Class<E> entityClass, OmniSearchOptions options, KeysetPagination pagination) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support keyset pagination");
+    }
+
+    default <E> KeysetPage<E> searchKeyset(Class<E> entityClass, Consumer<OmniSearchOptions> optionsConsumer, KeysetPagination pagination) {
+        var options = new OmniSearchOptions();
+        optionsConsumer.accept(options);
+        return searchKeyset(entityClass, options, pagination);
+    }
+
     <E> long count(Class<E> entityClass, OmniSearchBaseOptions options);
 
     default <E> long count(Class<E> entityClass, Consumer<OmniSearchBaseOptions> optionsConsumer) {
@@ -20,4 +123,28 @@ public interface OmniSearch {
         optionsConsumer.accept(options);
         return count(entityClass, options);
     }
-}
\ No newline at end of file
+
+    /**
+     * Detaches an entity returned by this search from the context it was loaded in, so that it can be shared with
+     * callers of other contexts, see {@link io.github.luidmidev.omnisearch.core.cache.CachingOmniSearch}. Does
+     * nothing by default, for searches whose entities are not managed.
+     *
+     * @param entity an entity returned by this search
+     */
+    default void detach(Object entity) {
+    }
+
+    /**
+     * Runs the requests one after the other on this search, sharing its resources.
+     *
+     * @param requests the requests
+     * @return the result of each request, read through {@link BatchResults#get(SearchRequest)}
+     */
+    default BatchResults batch(List<? extends SearchRequest<?>> requests) {
+        var results = new ArrayList<>(requests.size());
+        for (var request : requests) {
+            results.add(request.run(this));
+        }
+        return new BatchResults(requests, results);
+    }
+}
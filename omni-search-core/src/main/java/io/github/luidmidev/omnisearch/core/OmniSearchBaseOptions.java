@@ -1,6 +1,9 @@
 package io.github.luidmidev.omnisearch.core;
 
 import cz.jirutka.rsql.parser.ast.Node;
+import io.github.luidmidev.omnisearch.core.rsql.CachingRsqlParser;
+import io.github.luidmidev.omnisearch.core.schemas.CountMode;
+import io.github.luidmidev.omnisearch.core.schemas.MatchMode;
 import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
 
@@ -13,6 +16,8 @@ public class OmniSearchBaseOptions {
     private String search = null;
     private Set<String> joins = Set.of();
     private Node conditions = null;
+    private CountMode countMode = CountMode.exact();
+    private MatchMode searchMode = MatchMode.CONTAINS;
 
     public OmniSearchBaseOptions search(String search) {
         this.search = search;
@@ -32,4 +37,30 @@ public class OmniSearchBaseOptions {
         this.conditions = conditions;
         return this;
     }
+
+    /**
+     * Sets the conditions from an RSQL string, parsed once by the {@link CachingRsqlParser#getShared() shared parser}.
+     *
+     * @param conditions the RSQL conditions, {@code null} or blank to remove them
+     * @return this options
+     */
+    public OmniSearchBaseOptions conditions(String conditions) {
+        if (conditions == null || conditions.isBlank()) {
+            return conditions((Node) null);
+        }
+        return conditions(CachingRsqlParser.getShared().parse(conditions));
+    }
+
+    public OmniSearchBaseOptions countMode(@NotNull CountMode countMode) {
+        this.countMode = countMode;
+        return this;
+    }
+
+    /**
+     * Sets how the global search matches text columns, fields annotated with {@link SearchMatch} keep their own mode.
+     */
+    public OmniSearchBaseOptions searchMode(@NotNull MatchMode searchMode) {
+        this.searchMode = searchMode;
+        return this;
+    }
 }
@@ -1,5 +1,7 @@
 package io.github.luidmidev.omnisearch.core;
 
+import io.github.luidmidev.omnisearch.core.schemas.CountMode;
+import io.github.luidmidev.omnisearch.core.schemas.MatchMode;
 import io.github.luidmidev.omnisearch.core.schemas.Pagination;
 import io.github.luidmidev.omnisearch.core.schemas.Sort;
 import cz.jirutka.rsql.parser.ast.Node;
@@ -15,6 +17,7 @@ public class OmniSearchOptions extends OmniSearchBaseOptions {
 
     private Sort sort = Sort.unsorted();
     private Pagination pagination = Pagination.unpaginated();
+    private Set<String> fetch = Set.of();
 
     @Override
     public OmniSearchOptions search(String search) {
@@ -36,6 +39,21 @@ public class OmniSearchOptions extends OmniSearchBaseOptions {
         return (OmniSearchOptions) super.conditions(conditions);
     }
 
+    @Override
+    public OmniSearchOptions conditions(String conditions) {
+        return (OmniSearchOptions) super.conditions(conditions);
+    }
+
+    @Override
+    public OmniSearchOptions countMode(@NotNull CountMode countMode) {
+        return (OmniSearchOptions) super.countMode(countMode);
+    }
+
+    @Override
+    public OmniSearchOptions searchMode(@NotNull MatchMode searchMode) {
+        return (OmniSearchOptions) super.searchMode(searchMode);
+    }
+
     public OmniSearchOptions sort(@NotNull Sort sort) {
         this.sort = sort;
         return this;
@@ -58,4 +76,16 @@ public class OmniSearchOptions extends OmniSearchBaseOptions {
         return pagination(new Pagination(pageNumber, pageSize));
     }
 
+    /**
+     * Sets the fetch plan, the dot-separated association paths loaded together with the matching entities.
+     */
+    public OmniSearchOptions fetch(@NotNull Set<String> fetch) {
+        this.fetch = fetch;
+        return this;
+    }
+
+    public OmniSearchOptions fetch(String @NotNull ... fetch) {
+        return fetch(Set.of(fetch));
+    }
+
 }
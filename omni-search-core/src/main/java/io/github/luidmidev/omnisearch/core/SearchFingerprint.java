@@ -0,0 +1,121 @@
+package io.github.luidmidev.omnisearch.core;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.Node;
+import cz.jirutka.rsql.parser.ast.RSQLOperators;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Canonical identity of a search operation: the entity class together with everything in the options that decides
+ * the result. Two operations with equal fingerprints return the same result from the same data.
+ * <p>
+ * The conditions are compared by their normalized AST, so {@code a==1;b==2} and {@code b==2;a==1} share a
+ * fingerprint, as do {@code =in=} lists that only differ in the order of their values.
+ *
+ * @param entityClass the searched entity
+ * @param key         the canonical form of the operation and its options
+ */
+public record SearchFingerprint(Class<?> entityClass, String key) {
+
+    /**
+     * Creates the fingerprint of an operation.
+     *
+     * @param operation   the name of the operation, for example {@code search} or {@code count}
+     * @param entityClass the searched entity
+     * @param options     the options of the operation, sort, pagination and fetch plan included if present
+     * @param arguments   the other arguments of the operation that decide its result, like a projection class
+     * @return the fingerprint
+     */
+    public static SearchFingerprint of(@NotNull String operation, @NotNull Class<?> entityClass, @NotNull OmniSearchBaseOptions options, Object... arguments) {
+        var key = new StringBuilder(64).append(operation);
+        for (var argument : arguments) {
+            key.append(':');
+            appendQuoted(key, String.valueOf(argument));
+        }
+
+        var search = options.getSearch();
+        key.append("|search=");
+        if (search != null && !search.isBlank()) {
+            appendQuoted(key, search.strip());
+        }
+        key.append("|mode=").append(options.getSearchMode());
+        key.append("|joins=").append(new TreeSet<>(options.getJoins()));
+        key.append("|conditions=");
+        if (options.getConditions() != null) {
+            appendNode(key, options.getConditions());
+        }
+        var countMode = options.getCountMode();
+        key.append("|count=").append(countMode.getType()).append(':').append(countMode.getLimit());
+
+        if (options instanceof OmniSearchOptions searchOptions) {
+            key.append("|sort=");
+            for (var order : searchOptions.getSort().getOrders()) {
+                key.append(order.getProperty()).append(order.isAscending() ? '+' : '-').append(',');
+            }
+            var pagination = searchOptions.getPagination();
+            key.append("|page=");
+            if (pagination.isPaginated()) {
+                key.append(pagination.getPageNumber()).append(':').append(pagination.getPageSize());
+            }
+            key.append("|fetch=").append(new TreeSet<>(searchOptions.getFetch()));
+        }
+        return new SearchFingerprint(entityClass, key.toString());
+    }
+
+    /**
+     * Appends the normalized form of the node: nested nodes of the same logical operator are flattened, the children
+     * of a logical node and the values of {@code =in=} and {@code =out=} are sorted and deduplicated.
+     */
+    private static void appendNode(StringBuilder key, Node node) {
+        if (node instanceof LogicalNode logical) {
+            var children = new TreeSet<String>();
+            collectChildren(logical, logical, children);
+            key.append(logical.getOperator()).append('(');
+            for (var child : children) {
+                key.append(child).append(',');
+            }
+            key.append(')');
+        } else if (node instanceof ComparisonNode comparison) {
+            var operator = comparison.getOperator();
+            List<String> arguments = comparison.getArguments();
+            if (operator.equals(RSQLOperators.IN) || operator.equals(RSQLOperators.NOT_IN)) {
+                arguments = new ArrayList<>(new TreeSet<>(arguments));
+            }
+            key.append(comparison.getSelector()).append(operator.getSymbol()).append('[');
+            for (var argument : arguments) {
+                appendQuoted(key, argument);
+                key.append(',');
+            }
+            key.append(']');
+        } else {
+            key.append(node);
+        }
+    }
+
+    private static void collectChildren(LogicalNode root, LogicalNode node, TreeSet<String> children) {
+        for (var child : node.getChildren()) {
+            if (child instanceof LogicalNode logical && logical.getOperator() == root.getOperator()) {
+                collectChildren(root, logical, children);
+                continue;
+            }
+            var canonical = new StringBuilder();
+            appendNode(canonical, child);
+            children.add(canonical.toString());
+        }
+    }
+
+    private static void appendQuoted(StringBuilder key, String value) {
+        key.append('\'');
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c == '\'' || c == '\\') key.append('\\');
+            key.append(c);
+        }
+        key.append('\'');
+    }
+}
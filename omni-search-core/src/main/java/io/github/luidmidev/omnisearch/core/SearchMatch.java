@@ -0,0 +1,22 @@
+package io.github.luidmidev.omnisearch.core;
+
+import io.github.luidmidev.omnisearch.core.schemas.CaseStrategy;
+import io.github.luidmidev.omnisearch.core.schemas.MatchMode;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sets how the global search matches a text field, overriding the {@link OmniSearchBaseOptions#searchMode(MatchMode) search mode}
+ * of the request.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SearchMatch {
+
+    MatchMode value();
+
+    CaseStrategy caseStrategy() default CaseStrategy.LOWER;
+}
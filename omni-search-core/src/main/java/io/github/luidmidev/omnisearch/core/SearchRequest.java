@@ -0,0 +1,58 @@
+package io.github.luidmidev.omnisearch.core;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A single operation of a batch, see {@link OmniSearch#batch(List)}.
+ *
+ * @param <R> the type of the result of the operation
+ */
+public sealed interface SearchRequest<R> {
+
+    static <E> Search<E> search(Class<E> entityClass, OmniSearchOptions options) {
+        return new Search<>(entityClass, options);
+    }
+
+    static <E> Count<E> count(Class<E> entityClass, OmniSearchBaseOptions options) {
+        return new Count<>(entityClass, options);
+    }
+
+    Class<?> entityClass();
+
+    /**
+     * Runs the operation on the given search.
+     */
+    R run(OmniSearch search);
+
+    /**
+     * Runs the operation on the given async search.
+     */
+    CompletableFuture<R> runAsync(AsyncOmniSearch search);
+
+    record Search<E>(Class<E> entityClass, OmniSearchOptions options) implements SearchRequest<List<E>> {
+
+        @Override
+        public List<E> run(OmniSearch search) {
+            return search.search(entityClass, options);
+        }
+
+        @Override
+        public CompletableFuture<List<E>> runAsync(AsyncOmniSearch search) {
+            return search.searchAsync(entityClass, options);
+        }
+    }
+
+    record Count<E>(Class<E> entityClass, OmniSearchBaseOptions options) implements SearchRequest<Long> {
+
+        @Override
+        public Long run(OmniSearch search) {
+            return search.count(entityClass, options);
+        }
+
+        @Override
+        public CompletableFuture<Long> runAsync(AsyncOmniSearch search) {
+            return search.countAsync(entityClass, options);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.luidmidev.omnisearch.core.cache;
+
+import io.github.luidmidev.omnisearch.core.OmniSearch;
+import io.github.luidmidev.omnisearch.core.OmniSearchBaseOptions;
+import io.github.luidmidev.omnisearch.core.OmniSearchOptions;
+import io.github.luidmidev.omnisearch.core.SearchFingerprint;
+import io.github.luidmidev.omnisearch.core.schemas.CacheStats;
+import io.github.luidmidev.omnisearch.core.schemas.KeysetPage;
+import io.github.luidmidev.omnisearch.core.schemas.KeysetPagination;
+import io.github.luidmidev.omnisearch.core.schemas.Page;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Search that serves repeated operations from a {@link SearchResultStore}, keyed by the
+ * {@link SearchFingerprint fingerprint} of the operation, and delegates the others.
+ * <p>
+ * The cached lists are unmodifiable and shared by every caller of the same operation. The entities they contain are
+ * {@link OmniSearch#detach detached} from the context of the delegate before they are stored, so they are never
+ * managed by the context of any caller: they must be treated as read-only, changes to them are not persisted, and
+ * their lazy associations that were not loaded cannot be read. Results are only invalidated by their expiration or
+ * explicitly by {@link #invalidate(Class) entity class}: a change to an entity does not invalidate the searches of
+ * the entities that join it. A result loaded while its entity class is invalidated is returned but not stored.
+ * Streams are never cached.
+ */
+public class CachingOmniSearch implements OmniSearch {
+
+    private final OmniSearch delegate;
+
+    @Getter
+    private final SearchResultStore store;
+
+    public CachingOmniSearch(OmniSearch delegate) {
+        this(delegate, new InMemorySearchResultStore());
+    }
+
+    /**
+     * @param delegate the search of the operations that are not cached
+     * @param store    the store of the results, may be shared by several searches
+     */
+    public CachingOmniSearch(OmniSearch delegate, SearchResultStore store) {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public <E> List<E> search(Class<E> entityClass, OmniSearchOptions options) {
+        return cached(SearchFingerprint.of("search", entityClass, options), () -> detached(SearchResults.freeze(delegate.search(entityClass, options))));
+    }
+
+    @Override
+    public <E> Stream<E> stream(Class<E> entityClass, OmniSearchOptions options) {
+        return delegate.stream(entityClass, options);
+    }
+
+    @Override
+    public <E, R> List<R> search(Class<E> entityClass, Class<R> projection, OmniSearchOptions options) {
+        return cached(
+                SearchFingerprint.of("projection", entityClass, options, projection.getName()),
+                () -> SearchResults.freeze(delegate.search(entityClass, projection, options))
+        );
+    }
+
+    @Override
+    public <E> List<Map<String, Object>> search(Class<E> entityClass, List<String> properties, OmniSearchOptions options) {
+        return cached(
+                SearchFingerprint.of("properties", entityClass, options, properties),
+                () -> SearchResults.freezeRows(delegate.search(entityClass, properties, options))
+        );
+    }
+
+    @Override
+    public <E> Page<E> searchPage(Class<E> entityClass, OmniSearchOptions options) {
+        return cached(SearchFingerprint.of("page", entityClass, options), () -> {
+            var page = SearchResults.freeze(delegate.searchPage(entityClass, options));
+            detached(page.content());
+            return page;
+        });
+    }
+
+    @Override
+    public <E> KeysetPage<E> searchKeyset(Class<E> entityClass, OmniSearchOptions options, KeysetPagination pagination) {
+        return cached(
+                SearchFingerprint.of("keyset", entityClass, options, pagination.getPageSize(), pagination.getAfter()),
+                () -> {
+                    var page = SearchResults.freeze(delegate.searchKeyset(entityClass, options, pagination));
+                    detached(page.content());
+                    return page;
+                }
+        );
+    }
+
+    @Override
+    public <E> long count(Class<E> entityClass, OmniSearchBaseOptions options) {
+        return cached(SearchFingerprint.of("count", entityClass, options), () -> delegate.count(entityClass, options));
+    }
+
+    /**
+     * Removes the cached results of every operation on the given entity class, typically after it was modified.
+     */
+    public void invalidate(Class<?> entityClass) {
+        store.invalidate(entityClass);
+    }
+
+    public void clear() {
+        store.clear();
+    }
+
+    public CacheStats stats() {
+        return store.stats();
+    }
+
+    @Override
+    public void detach(Object entity) {
+        delegate.detach(entity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R cached(SearchFingerprint fingerprint, Supplier<R> loader) {
+        var result = (R) store.get(fingerprint);
+        if (result == null) {
+            var generation = store.generation(fingerprint.entityClass());
+            result = loader.get();
+            store.put(fingerprint, result, generation);
+        }
+        return result;
+    }
+
+    private <E> List<E> detached(List<E> entities) {
+        entities.forEach(delegate::detach);
+        return entities;
+    }
+}
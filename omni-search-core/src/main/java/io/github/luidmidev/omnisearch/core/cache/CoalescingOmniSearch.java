@@ -0,0 +1,196 @@
+package io.github.luidmidev.omnisearch.core.cache;
+
+import io.github.luidmidev.omnisearch.core.OmniSearch;
+import io.github.luidmidev.omnisearch.core.OmniSearchBaseOptions;
+import io.github.luidmidev.omnisearch.core.OmniSearchOptions;
+import io.github.luidmidev.omnisearch.core.SearchFingerprint;
+import io.github.luidmidev.omnisearch.core.schemas.KeysetPage;
+import io.github.luidmidev.omnisearch.core.schemas.KeysetPagination;
+import io.github.luidmidev.omnisearch.core.schemas.Page;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Search that runs identical concurrent operations once: the first caller of an operation runs it on the delegate,
+ * the callers of the same {@link SearchFingerprint fingerprint} that arrive before it finishes wait for its result
+ * instead of running their own. Nothing is kept once the operation finishes, so no result is ever stale.
+ * <p>
+ * Searches bound to a single-threaded resource, like an entity manager, are coalesced by giving each thread its own
+ * decorator over its own search and sharing the {@link InFlight in-flight operations} between them. Only the
+ * operations whose results hold no entity are coalesced: projections, property rows and counts, shared as
+ * unmodifiable results. Entity searches, pages and keyset pages always run on the delegate of the caller, since their
+ * entities belong to the persistence context they were loaded in. Streams are never coalesced.
+ */
+public class CoalescingOmniSearch implements OmniSearch {
+
+    private final OmniSearch delegate;
+
+    @Getter
+    private final InFlight inFlight;
+
+    public CoalescingOmniSearch(OmniSearch delegate) {
+        this(delegate, new InFlight());
+    }
+
+    /**
+     * @param delegate the search that runs the operations of this caller
+     * @param inFlight the operations in progress, shared by the decorators whose operations are coalesced
+     */
+    public CoalescingOmniSearch(OmniSearch delegate, InFlight inFlight) {
+        this.delegate = delegate;
+        this.inFlight = inFlight;
+    }
+
+    @Override
+    public <E> List<E> search(Class<E> entityClass, OmniSearchOptions options) {
+        return delegate.search(entityClass, options);
+    }
+
+    @Override
+    public <E> Stream<E> stream(Class<E> entityClass, OmniSearchOptions options) {
+        return delegate.stream(entityClass, options);
+    }
+
+    @Override
+    public <E, R> List<R> search(Class<E> entityClass, Class<R> projection, OmniSearchOptions options) {
+        return inFlight.run(
+                SearchFingerprint.of("projection", entityClass, options, projection.getName()),
+                () -> SearchResults.freeze(delegate.search(entityClass, projection, options))
+        );
+    }
+
+    @Override
+    public <E> List<Map<String, Object>> search(Class<E> entityClass, List<String> properties, OmniSearchOptions options) {
+        return inFlight.run(
+                SearchFingerprint.of("properties", entityClass, options, properties),
+                () -> SearchResults.freezeRows(delegate.search(entityClass, properties, options))
+        );
+    }
+
+    @Override
+    public <E> Page<E> searchPage(Class<E> entityClass, OmniSearchOptions options) {
+        return delegate.searchPage(entityClass, options);
+    }
+
+    @Override
+    public <E> KeysetPage<E> searchKeyset(Class<E> entityClass, OmniSearchOptions options, KeysetPagination pagination) {
+        return delegate.searchKeyset(entityClass, options, pagination);
+    }
+
+    @Override
+    public <E> long count(Class<E> entityClass, OmniSearchBaseOptions options) {
+        return inFlight.run(SearchFingerprint.of("count", entityClass, options), () -> delegate.count(entityClass, options));
+    }
+
+    @Override
+    public void detach(Object entity) {
+        delegate.detach(entity);
+    }
+
+    /**
+     * The operations in progress, by fingerprint. Thread-safe.
+     */
+    public static final class InFlight {
+
+        public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+        private final Map<SearchFingerprint, CompletableFuture<Object>> operations = new ConcurrentHashMap<>();
+        private final LongAdder executed = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final long timeoutNanos;
+
+        public InFlight() {
+            this(DEFAULT_TIMEOUT);
+        }
+
+        /**
+         * @param timeout how long a caller waits for an identical operation before running its own
+         */
+        public InFlight(@NotNull Duration timeout) {
+            if (timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("Timeout must be positive");
+            }
+            this.timeoutNanos = timeout.toNanos();
+        }
+
+        /**
+         * Gets the number of operations run on a delegate, including those that timed out waiting.
+         */
+        public long getExecuted() {
+            return executed.sum();
+        }
+
+        /**
+         * Gets the number of operations that waited for the result of an identical operation instead of running.
+         */
+        public long getCoalesced() {
+            return coalesced.sum();
+        }
+
+        /**
+         * Gets the number of operations in progress.
+         */
+        public int size() {
+            return operations.size();
+        }
+
+        /**
+         * Runs the operation, or waits for the identical one in progress. A failure of the operation is rethrown to
+         * every caller that waited for it, a caller that waits longer than the timeout runs the operation itself.
+         *
+         * @throws IllegalStateException if the caller is interrupted while waiting, its interrupt status is kept
+         */
+        @SuppressWarnings("unchecked")
+        <R> R run(SearchFingerprint fingerprint, Supplier<R> operation) {
+            var future = new CompletableFuture<Object>();
+            var leader = operations.putIfAbsent(fingerprint, future);
+            if (leader != null) {
+                coalesced.increment();
+                try {
+                    return (R) await(leader);
+                } catch (TimeoutException e) {
+                    executed.increment();
+                    return operation.get();
+                }
+            }
+
+            executed.increment();
+            try {
+                var result = operation.get();
+                future.complete(result);
+                return result;
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+                throw e;
+            } finally {
+                operations.remove(fingerprint, future);
+            }
+        }
+
+        private Object await(CompletableFuture<Object> leader) throws TimeoutException {
+            try {
+                return leader.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for an identical search operation", e);
+            } catch (ExecutionException e) {
+                var cause = e.getCause();
+                if (cause instanceof RuntimeException runtime) throw runtime;
+                if (cause instanceof Error error) throw error;
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.luidmidev.omnisearch.core.cache;
+
+import io.github.luidmidev.omnisearch.core.SearchFingerprint;
+import io.github.luidmidev.omnisearch.core.schemas.CacheStats;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe bounded LRU store whose results expire a fixed time after they were stored.
+ */
+public final class InMemorySearchResultStore implements SearchResultStore {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofSeconds(30);
+
+    private final Map<SearchFingerprint, Entry> cache;
+    private final Map<Class<?>, Long> invalidations = new HashMap<>();
+    private long clears;
+    private final long timeToLiveNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public InMemorySearchResultStore() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE);
+    }
+
+    public InMemorySearchResultStore(int maximumSize, @NotNull Duration timeToLive) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be greater than zero");
+        }
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SearchFingerprint, Entry> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    @Override
+    public Object get(SearchFingerprint fingerprint) {
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(fingerprint);
+            if (entry != null && entry.isExpired(System.nanoTime())) {
+                cache.remove(fingerprint);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.result();
+    }
+
+    @Override
+    public long generation(Class<?> entityClass) {
+        synchronized (cache) {
+            return currentGeneration(entityClass);
+        }
+    }
+
+    @Override
+    public boolean put(SearchFingerprint fingerprint, Object result, long generation) {
+        var entry = new Entry(result, System.nanoTime() + timeToLiveNanos);
+        synchronized (cache) {
+            if (currentGeneration(fingerprint.entityClass()) != generation) {
+                return false;
+            }
+            cache.put(fingerprint, entry);
+            return true;
+        }
+    }
+
+    @Override
+    public void invalidate(Class<?> entityClass) {
+        synchronized (cache) {
+            invalidations.merge(entityClass, 1L, Long::sum);
+            cache.keySet().removeIf(fingerprint -> fingerprint.entityClass().equals(entityClass));
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (cache) {
+            clears++;
+            cache.clear();
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public CacheStats stats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), size);
+    }
+
+    /**
+     * Both counters only grow, so their sum changes on every invalidation of the class and every clear.
+     */
+    private long currentGeneration(Class<?> entityClass) {
+        return clears + invalidations.getOrDefault(entityClass, 0L);
+    }
+
+    private record Entry(Object result, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
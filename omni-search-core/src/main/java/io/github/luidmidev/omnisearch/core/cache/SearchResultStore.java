@@ -0,0 +1,46 @@
+package io.github.luidmidev.omnisearch.core.cache;
+
+import io.github.luidmidev.omnisearch.core.SearchFingerprint;
+import io.github.luidmidev.omnisearch.core.schemas.CacheStats;
+
+/**
+ * Storage of the results cached by {@link CachingOmniSearch}, keyed by the fingerprint of the operation that
+ * produced them. Implementations must be thread-safe, the stored results are immutable.
+ */
+public interface SearchResultStore {
+
+    /**
+     * Gets the result of the fingerprint, counting a hit or a miss.
+     *
+     * @return the result, or {@code null} if it is not stored or has expired
+     */
+    Object get(SearchFingerprint fingerprint);
+
+    /**
+     * Gets the generation of the results of an entity class, which changes every time they are
+     * {@link #invalidate(Class) invalidated} or {@link #clear() cleared}. Read it before loading a result and pass it
+     * to {@link #put} so that a result loaded before an invalidation is not stored after it.
+     */
+    long generation(Class<?> entityClass);
+
+    /**
+     * Stores the result of the fingerprint, unless the results of its entity class were invalidated since the given
+     * generation was read.
+     *
+     * @param generation the {@link #generation(Class) generation} of the entity class read before loading the result
+     * @return whether the result was stored
+     */
+    boolean put(SearchFingerprint fingerprint, Object result, long generation);
+
+    /**
+     * Removes the results of every operation on the given entity class and moves it to a new generation.
+     */
+    void invalidate(Class<?> entityClass);
+
+    /**
+     * Removes every result, moves every entity class to a new generation and resets the statistics.
+     */
+    void clear();
+
+    CacheStats stats();
+}
@@ -0,0 +1,36 @@
+package io.github.luidmidev.omnisearch.core.cache;
+
+import io.github.luidmidev.omnisearch.core.schemas.KeysetPage;
+import io.github.luidmidev.omnisearch.core.schemas.Page;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unmodifiable copies of the results shared by several callers, so that none of them can change what the others see.
+ */
+final class SearchResults {
+
+    private SearchResults() {
+    }
+
+    static <E> List<E> freeze(List<E> results) {
+        return List.copyOf(results);
+    }
+
+    static List<Map<String, Object>> freezeRows(List<Map<String, Object>> rows) {
+        return rows.stream()
+                .map(row -> Collections.unmodifiableMap(new LinkedHashMap<>(row)))
+                .toList();
+    }
+
+    static <E> Page<E> freeze(Page<E> page) {
+        return new Page<>(List.copyOf(page.content()), page.total(), page.pagination());
+    }
+
+    static <E> KeysetPage<E> freeze(KeysetPage<E> page) {
+        return new KeysetPage<>(List.copyOf(page.content()), page.nextToken());
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.luidmidev.omnisearch.core.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Search metrics that record every measurement in a {@link LatencyHistogram} per entity class, ready to be exported
+ * to a monitoring system from their {@link #snapshot() snapshots}.
+ * <p>
+ * The histograms are named after the lower-cased {@link SearchPhase phase} for timings, in nanoseconds, and
+ * {@code predicates}, {@code joins}, {@code results} and {@code rows} for sizes. Errors are counted.
+ */
+public final class HistogramSearchMetrics implements SearchMetrics {
+
+    public static final String PREDICATES = "predicates";
+    public static final String JOINS = "joins";
+    public static final String RESULTS = "results";
+    public static final String ROWS = "rows";
+
+    private final Map<Metric, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<Class<?>, LongAdder> errors = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordPhase(Class<?> entityClass, SearchOperation operation, SearchPhase phase, long nanos) {
+        histogram(entityClass, nameOf(phase)).record(nanos);
+    }
+
+    @Override
+    public void recordPredicates(Class<?> entityClass, SearchOperation operation, int predicates, int joins) {
+        histogram(entityClass, PREDICATES).record(predicates);
+        histogram(entityClass, JOINS).record(joins);
+    }
+
+    @Override
+    public void recordResult(Class<?> entityClass, SearchOperation operation, long results, long rows) {
+        histogram(entityClass, RESULTS).record(results);
+        histogram(entityClass, ROWS).record(rows);
+    }
+
+    @Override
+    public void recordError(Class<?> entityClass, SearchOperation operation, Throwable error) {
+        errors.computeIfAbsent(entityClass, type -> new LongAdder()).increment();
+    }
+
+    /**
+     * Takes a snapshot of the timings of a phase on an entity class.
+     */
+    public HistogramSnapshot snapshot(Class<?> entityClass, SearchPhase phase) {
+        return snapshot(entityClass, nameOf(phase));
+    }
+
+    /**
+     * Takes a snapshot of a histogram of an entity class.
+     *
+     * @param name the name of the histogram
+     * @return the snapshot, {@link HistogramSnapshot#EMPTY empty} if nothing was recorded
+     */
+    public HistogramSnapshot snapshot(Class<?> entityClass, String name) {
+        var histogram = histograms.get(new Metric(entityClass, name));
+        return histogram == null ? HistogramSnapshot.EMPTY : histogram.snapshot();
+    }
+
+    /**
+     * Takes a snapshot of every histogram, ordered by entity class name and histogram name.
+     */
+    public Map<Metric, HistogramSnapshot> snapshot() {
+        var snapshots = new TreeMap<Metric, HistogramSnapshot>();
+        histograms.forEach((metric, histogram) -> snapshots.put(metric, histogram.snapshot()));
+        return snapshots;
+    }
+
+    public long errors(Class<?> entityClass) {
+        var count = errors.get(entityClass);
+        return count == null ? 0 : count.sum();
+    }
+
+    public void reset() {
+        histograms.clear();
+        errors.clear();
+    }
+
+    private LatencyHistogram histogram(Class<?> entityClass, String name) {
+        return histograms.computeIfAbsent(new Metric(entityClass, name), metric -> new LatencyHistogram());
+    }
+
+    private static String nameOf(SearchPhase phase) {
+        return phase.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The name of a histogram and the entity class it is tagged with.
+     */
+    public record Metric(Class<?> entityClass, String name) implements Comparable<Metric> {
+
+        @Override
+        public int compareTo(Metric other) {
+            var byEntity = entityClass.getName().compareTo(other.entityClass.getName());
+            return byEntity != 0 ? byEntity : name.compareTo(other.name);
+        }
+    }
+}
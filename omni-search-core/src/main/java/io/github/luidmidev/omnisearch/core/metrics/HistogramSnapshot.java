@@ -0,0 +1,16 @@
+package io.github.luidmidev.omnisearch.core.metrics;
+
+/**
+ * Snapshot of the distribution of the values recorded by a {@link LatencyHistogram}. The percentiles are the highest
+ * value of their bucket, at most {@link LatencyHistogram#RELATIVE_ERROR} above the exact percentile.
+ *
+ * @param count the number of recorded values
+ * @param p50   the median
+ * @param p99   the 99th percentile
+ * @param p999  the 99.9th percentile
+ * @param max   the maximum recorded value
+ */
+public record HistogramSnapshot(long count, long p50, long p99, long p999, long max) {
+
+    public static final HistogramSnapshot EMPTY = new HistogramSnapshot(0, 0, 0, 0, 0);
+}
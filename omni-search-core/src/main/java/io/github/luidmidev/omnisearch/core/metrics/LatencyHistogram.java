@@ -0,0 +1,103 @@
+package io.github.luidmidev.omnisearch.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of non-negative values, like nanosecond latencies or row counts.
+ * <p>
+ * Values are counted in log-linear buckets: every power of two is split into {@code 2^PRECISION_BITS} buckets of
+ * equal width, so a percentile is read with a relative error of at most {@link #RELATIVE_ERROR} whatever the
+ * magnitude of the values, from a fixed array of counters. Recording is a single atomic increment.
+ */
+public final class LatencyHistogram {
+
+    private static final int PRECISION_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << PRECISION_BITS;
+
+    /**
+     * The maximum relative error of a percentile.
+     */
+    public static final double RELATIVE_ERROR = 1.0 / SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - PRECISION_BITS) * SUB_BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value, negative values are recorded as zero.
+     */
+    public void record(long value) {
+        var recorded = Math.max(value, 0);
+        counts.incrementAndGet(indexOf(recorded));
+        if (recorded > max.get()) {
+            max.accumulateAndGet(recorded, Math::max);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the recorded values. Values recorded while the snapshot is taken may or may not be part of
+     * it.
+     */
+    public HistogramSnapshot snapshot() {
+        var length = counts.length();
+        var buckets = new long[length];
+        long count = 0;
+        for (int i = 0; i < length; i++) {
+            buckets[i] = counts.get(i);
+            count += buckets[i];
+        }
+        if (count == 0) {
+            return HistogramSnapshot.EMPTY;
+        }
+        return new HistogramSnapshot(
+                count,
+                percentile(buckets, count, 0.5),
+                percentile(buckets, count, 0.99),
+                percentile(buckets, count, 0.999),
+                max.get()
+        );
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        max.set(0);
+    }
+
+    private static long percentile(long[] buckets, long count, double quantile) {
+        var rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(buckets.length - 1);
+    }
+
+    /**
+     * Values below {@code SUB_BUCKETS} have a bucket each, the others are bucketed by their exponent and the
+     * {@code PRECISION_BITS} bits that follow their highest bit.
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        var exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        var mantissa = (int) (value >>> (exponent - PRECISION_BITS));
+        return (exponent - PRECISION_BITS + 1) * SUB_BUCKETS + mantissa - SUB_BUCKETS;
+    }
+
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        var exponent = index / SUB_BUCKETS + PRECISION_BITS - 1;
+        var mantissa = (long) (index % SUB_BUCKETS + SUB_BUCKETS);
+        var shift = exponent - PRECISION_BITS;
+        var highest = ((mantissa + 1) << shift) - 1;
+        return highest < 0 ? Long.MAX_VALUE : highest;
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.luidmidev.omnisearch.core.metrics;
+
+/**
+ * Listener of the measurements of the search operations, called once per operation when it completes, on the thread
+ * that ran it. Implementations must be thread-safe and cheap, they run on the path of every search.
+ * <p>
+ * Every method has an empty default, so a listener only implements the measurements it needs.
+ */
+public interface SearchMetrics {
+
+    /**
+     * Records the time spent in a phase of the operation. Phases the operation did not go through are not recorded.
+     *
+     * @param nanos the elapsed time, in nanoseconds
+     */
+    default void recordPhase(Class<?> entityClass, SearchOperation operation, SearchPhase phase, long nanos) {
+    }
+
+    /**
+     * Records the size of the where clauses built by the operation.
+     *
+     * @param predicates the number of leaf predicates
+     * @param joins      the number of joins
+     */
+    default void recordPredicates(Class<?> entityClass, SearchOperation operation, int predicates, int joins) {
+    }
+
+    /**
+     * Records the size of the result of the operation.
+     *
+     * @param results the number of returned results, the counted total for counts
+     * @param rows    the number of rows read by the queries of the operation
+     */
+    default void recordResult(Class<?> entityClass, SearchOperation operation, long results, long rows) {
+    }
+
+    /**
+     * Records the failure of the operation, its {@link SearchPhase#TOTAL total} time is recorded too.
+     */
+    default void recordError(Class<?> entityClass, SearchOperation operation, Throwable error) {
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.luidmidev.omnisearch.core.metrics;
+
+/**
+ * The operations of {@link io.github.luidmidev.omnisearch.core.OmniSearch} reported to {@link SearchMetrics}.
+ */
+public enum SearchOperation {
+    SEARCH, STREAM, PROJECTION, PAGE, KEYSET, COUNT
+}
@@ -0,0 +1,33 @@
+package io.github.luidmidev.omnisearch.core.metrics;
+
+/**
+ * The phases of a search operation timed by {@link SearchMetrics}. The phases are nested, a phase includes the time
+ * of the phases listed after it in its description.
+ */
+public enum SearchPhase {
+
+    /**
+     * The whole operation, from the call to the returned result.
+     */
+    TOTAL,
+
+    /**
+     * Building the where clause of the queries, the global search and the {@link #CONDITIONS conditions}.
+     */
+    PREDICATE_BUILD,
+
+    /**
+     * Optimizing and visiting the RSQL conditions, {@link #ARGUMENT_PARSING argument parsing} included.
+     */
+    CONDITIONS,
+
+    /**
+     * Converting the arguments of the RSQL conditions to the types of their properties.
+     */
+    ARGUMENT_PARSING,
+
+    /**
+     * Executing the queries and reading their rows.
+     */
+    QUERY_EXECUTION
+}
@@ -0,0 +1,100 @@
+package io.github.luidmidev.omnisearch.core.rsql;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.RSQLParserException;
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+import io.github.luidmidev.omnisearch.core.schemas.CacheStats;
+import lombok.Getter;
+import lombok.Setter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe RSQL parser that keeps the parsed AST of the most recently used condition strings in a bounded
+ * LRU cache. The AST nodes of the parser are immutable, so the same instance is shared by every caller.
+ */
+public final class CachingRsqlParser {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    /**
+     * Parser used by {@link io.github.luidmidev.omnisearch.core.OmniSearchBaseOptions#conditions(String)}.
+     */
+    @Getter
+    @Setter
+    private static CachingRsqlParser shared = new CachingRsqlParser(DEFAULT_MAXIMUM_SIZE);
+
+    private final RSQLParser parser;
+    private final Map<String, Node> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingRsqlParser(int maximumSize) {
+        this(OmniSearchOperators.defaultOperators(), maximumSize);
+    }
+
+    public CachingRsqlParser(Set<ComparisonOperator> operators, int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be greater than zero");
+        }
+        this.parser = new RSQLParser(operators);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Node> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Parses the RSQL condition string, returning the cached AST when the same normalized string was parsed before.
+     *
+     * @param rsql the RSQL condition string
+     * @return the parsed AST
+     * @throws RSQLParserException if the string is not a valid RSQL expression
+     */
+    public Node parse(@NotNull String rsql) {
+        var key = normalize(rsql);
+
+        Node node;
+        synchronized (cache) {
+            node = cache.get(key);
+        }
+        if (node != null) {
+            hits.increment();
+            return node;
+        }
+
+        misses.increment();
+        node = parser.parse(key);
+        synchronized (cache) {
+            cache.put(key, node);
+        }
+        return node;
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), size);
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    private static String normalize(String rsql) {
+        return rsql.strip();
+    }
+}
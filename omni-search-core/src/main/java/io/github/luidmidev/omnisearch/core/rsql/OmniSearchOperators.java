@@ -0,0 +1,41 @@
+package io.github.luidmidev.omnisearch.core.rsql;
+
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.RSQLOperators;
+import lombok.experimental.UtilityClass;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * RSQL comparison operators supported in addition to the {@link RSQLOperators#defaultOperators() default ones}.
+ */
+@UtilityClass
+public class OmniSearchOperators {
+
+    /**
+     * Case-insensitive like, {@code *} in the argument matches any sequence of characters.
+     */
+    public static final ComparisonOperator ILIKE = new ComparisonOperator("=ilike=");
+
+    /**
+     * Negated {@link #ILIKE}.
+     */
+    public static final ComparisonOperator NOT_ILIKE = new ComparisonOperator("=nilike=");
+
+    /**
+     * Inclusive range, takes exactly two arguments, the lower and the upper bound: {@code createdAt=between=(2024-01-01,2024-12-31)}.
+     */
+    public static final ComparisonOperator BETWEEN = new ComparisonOperator("=between=", true);
+
+    /**
+     * Gets the default RSQL operators together with the operators of this class.
+     */
+    public static Set<ComparisonOperator> defaultOperators() {
+        var operators = new HashSet<>(RSQLOperators.defaultOperators());
+        operators.add(ILIKE);
+        operators.add(NOT_ILIKE);
+        operators.add(BETWEEN);
+        return operators;
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.luidmidev.omnisearch.core.schemas;
+
+import io.github.luidmidev.omnisearch.core.SearchRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The results of a batch, each one read through the request that produced it so that it keeps its type.
+ */
+public final class BatchResults {
+
+    private final List<Object> results;
+    private final Map<SearchRequest<?>, Integer> indexes;
+
+    /**
+     * @param requests the requests of the batch
+     * @param results  the result of each request, in the order of the requests
+     */
+    public BatchResults(List<? extends SearchRequest<?>> requests, List<?> results) {
+        if (requests.size() != results.size()) {
+            throw new IllegalArgumentException("Expected " + requests.size() + " results but got " + results.size());
+        }
+        this.results = Collections.unmodifiableList(new ArrayList<>(results));
+        this.indexes = new IdentityHashMap<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            indexes.put(requests.get(i), i);
+        }
+    }
+
+    /**
+     * Gets the result of a request of the batch.
+     *
+     * @param request the request, the same instance given to the batch
+     * @return the result of the request
+     * @throws IllegalArgumentException if the request is not part of the batch
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R get(SearchRequest<R> request) {
+        var index = indexes.get(request);
+        if (index == null) {
+            throw new IllegalArgumentException("The request is not part of the batch: " + request);
+        }
+        return (R) results.get(index);
+    }
+
+    /**
+     * Gets the results in the order of the requests.
+     */
+    public List<Object> asList() {
+        return results;
+    }
+
+    public int size() {
+        return results.size();
+    }
+}
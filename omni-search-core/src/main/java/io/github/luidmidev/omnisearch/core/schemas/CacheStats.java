@@ -0,0 +1,20 @@
+package io.github.luidmidev.omnisearch.core.schemas;
+
+/**
+ * Snapshot of the statistics of a cache.
+ *
+ * @param hits   the number of lookups served from the cache
+ * @param misses the number of lookups that had to compute the value
+ * @param size   the number of entries currently held
+ */
+public record CacheStats(long hits, long misses, long size) {
+
+    public long requests() {
+        return hits + misses;
+    }
+
+    public double hitRate() {
+        var requests = requests();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.luidmidev.omnisearch.core.schemas;
+
+/**
+ * How text columns are compared case-insensitively.
+ * <ul>
+ *     <li>{@link #LOWER}: both sides are lower-cased, {@code lower(column) like 'term%'}.</li>
+ *     <li>{@link #COLLATION}: the column is compared as is, relying on a case-insensitive collation or a functional index.</li>
+ * </ul>
+ */
+public enum CaseStrategy {
+    LOWER, COLLATION
+}
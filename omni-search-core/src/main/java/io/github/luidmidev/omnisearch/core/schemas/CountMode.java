@@ -0,0 +1,46 @@
+package io.github.luidmidev.omnisearch.core.schemas;
+
+
+import lombok.Data;
+
+/**
+ * How the total number of matches is counted.
+ * <ul>
+ *     <li>{@link Type#EXACT}: counts every match.</li>
+ *     <li>{@link Type#BOUNDED}: counts up to {@link #getLimit() limit} matches, a result equal to the limit means "limit or more".</li>
+ *     <li>{@link Type#APPROXIMATE}: reads an estimate from the database statistics when nothing is filtered, counting exactly otherwise.</li>
+ * </ul>
+ */
+@Data
+public class CountMode {
+
+    private static final CountMode EXACT = new CountMode(Type.EXACT, 0);
+    private static final CountMode APPROXIMATE = new CountMode(Type.APPROXIMATE, 0);
+
+    private final Type type;
+    private final long limit;
+
+    private CountMode(Type type, long limit) {
+        this.type = type;
+        this.limit = limit;
+    }
+
+    public static CountMode exact() {
+        return EXACT;
+    }
+
+    public static CountMode bounded(long limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Count limit must be greater than zero");
+        }
+        return new CountMode(Type.BOUNDED, limit);
+    }
+
+    public static CountMode approximate() {
+        return APPROXIMATE;
+    }
+
+    public enum Type {
+        EXACT, BOUNDED, APPROXIMATE
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.luidmidev.omnisearch.core.schemas;
+
+import java.util.List;
+
+/**
+ * A page read with {@link KeysetPagination}.
+ *
+ * @param content   the rows of the page
+ * @param nextToken the continuation token of the next page, {@code null} if this is the last page
+ * @param <E>       the entity type
+ */
+public record KeysetPage<E>(List<E> content, String nextToken) {
+
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+
+    public KeysetPagination next(int pageSize) {
+        if (!hasNext()) {
+            throw new IllegalStateException("There is no next page");
+        }
+        return KeysetPagination.after(nextToken, pageSize);
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.luidmidev.omnisearch.core.schemas;
+
+
+import lombok.Data;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Keyset (seek) pagination. Instead of skipping {@code offset} rows, the next page is read from the position
+ * right after the last row of the previous page, encoded in an opaque continuation token.
+ * <p>
+ * The ordering is made unique and stable by appending the entity id to the requested {@link Sort}. A token records
+ * a hash of the ordering it was created for, and is rejected when replayed with another ordering.
+ */
+@Data
+public class KeysetPagination {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final int pageSize;
+    private final String after;
+
+    public KeysetPagination(int pageSize, String after) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than zero");
+        }
+        this.pageSize = pageSize;
+        this.after = after;
+    }
+
+    public boolean isFirstPage() {
+        return after == null || after.isBlank();
+    }
+
+    public static KeysetPagination first(int pageSize) {
+        return new KeysetPagination(pageSize, null);
+    }
+
+    public static KeysetPagination after(String token, int pageSize) {
+        return new KeysetPagination(pageSize, token);
+    }
+
+    /**
+     * Encodes the key values of a row into an opaque continuation token.
+     *
+     * @param ordering a description of the ordering the keys belong to, such as its properties and directions
+     * @param keys     the string representation of the key values in sort order, {@code null} for a null value
+     * @return the continuation token
+     */
+    public static String encodeToken(String ordering, List<String> keys) {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeInt(ordering.hashCode());
+            out.writeInt(keys.size());
+            for (var key : keys) {
+                out.writeBoolean(key != null);
+                if (key != null) {
+                    out.writeUTF(key);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ENCODER.encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decodes the key values of a continuation token created by {@link #encodeToken(String, List)}.
+     *
+     * @param token    the continuation token
+     * @param ordering the ordering the token is replayed with
+     * @return the string representation of the key values in sort order, {@code null} for a null value
+     * @throws IllegalArgumentException if the token is malformed or was created for another ordering
+     */
+    public static List<String> decodeToken(String token, String ordering) {
+        int hash;
+        List<String> keys;
+        try (var in = new DataInputStream(new ByteArrayInputStream(DECODER.decode(token.getBytes(StandardCharsets.US_ASCII))))) {
+            hash = in.readInt();
+            var size = in.readInt();
+            if (size < 0 || size > in.available()) {
+                throw new IllegalArgumentException("Malformed continuation token");
+            }
+            keys = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                keys.add(in.readBoolean() ? in.readUTF() : null);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed continuation token", e);
+        }
+        if (hash != ordering.hashCode()) {
+            throw new IllegalArgumentException("Continuation token does not match the requested sort");
+        }
+        return keys;
+    }
+
+    /**
+     * Decodes the key values of the {@link #getAfter() after} token.
+     *
+     * @param ordering the ordering the token is replayed with
+     * @return the key values, empty for the first page
+     * @throws IllegalArgumentException if the token is malformed or was created for another ordering
+     */
+    public List<String> getAfterKeys(String ordering) {
+        return isFirstPage() ? List.of() : decodeToken(after, ordering);
+    }
+}
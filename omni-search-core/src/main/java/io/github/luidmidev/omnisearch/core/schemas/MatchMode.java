@@ -0,0 +1,13 @@
+package io.github.luidmidev.omnisearch.core.schemas;
+
+/**
+ * How the global search term is matched against text columns.
+ * <ul>
+ *     <li>{@link #CONTAINS}: the column contains the term, {@code like '%term%'}.</li>
+ *     <li>{@link #PREFIX}: the column starts with the term, {@code like 'term%'}, which an index can serve.</li>
+ *     <li>{@link #EXACT}: the column equals the term.</li>
+ * </ul>
+ */
+public enum MatchMode {
+    CONTAINS, PREFIX, EXACT
+}
@@ -0,0 +1,25 @@
+package io.github.luidmidev.omnisearch.core.schemas;
+
+import java.util.List;
+
+/**
+ * A page of results together with the total number of matches.
+ *
+ * @param content    the rows of the page
+ * @param total      the total number of matches
+ * @param pagination the requested pagination
+ * @param <E>        the entity type
+ */
+public record Page<E>(List<E> content, long total, Pagination pagination) {
+
+    public int getTotalPages() {
+        if (pagination.isUnpaginated()) {
+            return 1;
+        }
+        return (int) Math.ceil((double) total / pagination.getPageSize());
+    }
+
+    public boolean hasNext() {
+        return pagination.isPaginated() && (long) pagination.getOffset() + content.size() < total;
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.luidmidev.omnisearch.jpa;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.OptionalLong;
+
+/**
+ * Estimates the number of rows of an entity table, used by the approximate count mode.
+ */
+@FunctionalInterface
+public interface CountEstimator {
+
+    /**
+     * Estimates the number of rows of the table of the given entity.
+     *
+     * @param em          the entity manager used to read the estimate
+     * @param entityClass the entity class
+     * @return the estimate, or empty if it is not available
+     */
+    OptionalLong estimate(EntityManager em, Class<?> entityClass);
+}
@@ -0,0 +1,141 @@
+package io.github.luidmidev.omnisearch.jpa;
+
+import io.github.luidmidev.omnisearch.core.AsyncOmniSearch;
+import io.github.luidmidev.omnisearch.core.OmniSearch;
+import io.github.luidmidev.omnisearch.core.OmniSearchBaseOptions;
+import io.github.luidmidev.omnisearch.core.OmniSearchOptions;
+import io.github.luidmidev.omnisearch.core.SearchRequest;
+import io.github.luidmidev.omnisearch.core.schemas.BatchResults;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * {@link AsyncOmniSearch} over JPA, each task gets its own {@link EntityManager} from the factory, which is closed
+ * when the task completes. The returned entities are therefore detached, associations read afterwards must be part
+ * of the {@link OmniSearchOptions#fetch(String...) fetch plan}.
+ */
+@Slf4j
+public class JpaAsyncOmniSearch implements AsyncOmniSearch, AutoCloseable {
+
+    private final EntityManagerFactory emf;
+    private final Function<EntityManager, ? extends OmniSearch> searchFactory;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    /**
+     * Maximum number of requests of a {@link #batchAsync(List) batch} running at the same time, zero or less for
+     * no limit.
+     */
+    @Getter
+    @Setter
+    private int batchConcurrency = 8;
+
+    /**
+     * Creates an async search that runs every task on its own virtual thread.
+     */
+    public JpaAsyncOmniSearch(EntityManagerFactory emf) {
+        this(emf, JpaOmniSearch::new);
+    }
+
+    /**
+     * Creates an async search that runs every task on its own virtual thread.
+     *
+     * @param emf           the factory of the entity managers of the tasks
+     * @param searchFactory creates the search of a task from its entity manager
+     */
+    public JpaAsyncOmniSearch(EntityManagerFactory emf, Function<EntityManager, ? extends OmniSearch> searchFactory) {
+        this(emf, searchFactory, Executors.newVirtualThreadPerTaskExecutor(), true);
+    }
+
+    /**
+     * Creates an async search that runs its tasks on the given executor, which is not shut down by {@link #close()}.
+     *
+     * @param emf           the factory of the entity managers of the tasks
+     * @param searchFactory creates the search of a task from its entity manager
+     * @param executor      the executor of the tasks
+     */
+    public JpaAsyncOmniSearch(EntityManagerFactory emf, Function<EntityManager, ? extends OmniSearch> searchFactory, ExecutorService executor) {
+        this(emf, searchFactory, executor, false);
+    }
+
+    private JpaAsyncOmniSearch(EntityManagerFactory emf, Function<EntityManager, ? extends OmniSearch> searchFactory, ExecutorService executor, boolean ownsExecutor) {
+        this.emf = emf;
+        this.searchFactory = searchFactory;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    @Override
+    public <E> CompletableFuture<List<E>> searchAsync(Class<E> entityClass, OmniSearchOptions options) {
+        return submit(search -> search.search(entityClass, options));
+    }
+
+    @Override
+    public <E> CompletableFuture<Long> countAsync(Class<E> entityClass, OmniSearchBaseOptions options) {
+        return submit(search -> search.count(entityClass, options));
+    }
+
+    /**
+     * Runs a task on the executor with a search bound to a new entity manager.
+     *
+     * @param task the task
+     * @return a future of the result of the task
+     */
+    public <T> CompletableFuture<T> submit(Function<OmniSearch, T> task) {
+        return CompletableFuture.supplyAsync(() -> run(task), executor);
+    }
+
+    /**
+     * Runs the requests concurrently, at most {@link #getBatchConcurrency()} at a time.
+     */
+    @Override
+    public CompletableFuture<BatchResults> batchAsync(List<? extends SearchRequest<?>> requests) {
+        if (batchConcurrency <= 0) {
+            return AsyncOmniSearch.super.batchAsync(requests);
+        }
+
+        var permits = new Semaphore(batchConcurrency);
+        var futures = new ArrayList<CompletableFuture<?>>(requests.size());
+        for (var request : requests) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    return run(request::run);
+                } finally {
+                    permits.release();
+                }
+            }, executor));
+        }
+        return CompletableFuture
+                .allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> new BatchResults(requests, futures.stream().map(CompletableFuture::join).toList()));
+    }
+
+    private <T> T run(Function<OmniSearch, T> task) {
+        try (var em = emf.createEntityManager()) {
+            return task.apply(searchFactory.apply(em));
+        }
+    }
+
+    /**
+     * Shuts down the default executor, executors given to the constructor are left to their owner.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            log.debug("Shutting down the async search executor");
+            executor.close();
+        }
+    }
+}
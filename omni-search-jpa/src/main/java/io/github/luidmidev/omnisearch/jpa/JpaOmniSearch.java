@@ -3,19 +3,121 @@ package io.github.luidmidev.omnisearch.jpa;
 import io.github.luidmidev.omnisearch.core.OmniSearch;
 import io.github.luidmidev.omnisearch.core.OmniSearchBaseOptions;
 import io.github.luidmidev.omnisearch.core.OmniSearchOptions;
+import io.github.luidmidev.omnisearch.core.metrics.SearchMetrics;
+import io.github.luidmidev.omnisearch.core.metrics.SearchOperation;
+import io.github.luidmidev.omnisearch.core.metrics.SearchPhase;
+import io.github.luidmidev.omnisearch.core.schemas.CountMode;
+import io.github.luidmidev.omnisearch.core.schemas.KeysetPage;
+import io.github.luidmidev.omnisearch.core.schemas.KeysetPagination;
+import io.github.luidmidev.omnisearch.core.schemas.Page;
+import io.github.luidmidev.omnisearch.core.schemas.Pagination;
+import io.github.luidmidev.omnisearch.core.schemas.Sort;
+import io.github.luidmidev.omnisearch.jpa.rsql.EntityManagerAdapter;
 import io.github.luidmidev.omnisearch.jpa.rsql.builder.BuilderTools;
 import jakarta.persistence.*;
+import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 @Slf4j
 public class JpaOmniSearch implements OmniSearch {
 
+    /**
+     * Provider specific hints used to set the JDBC fetch size of streamed searches, unknown hints are ignored.
+     */
+    private static final List<String> FETCH_SIZE_HINTS = List.of("org.hibernate.fetchSize", "eclipselink.jdbc.fetch-size");
+
+    static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+
+    /**
+     * Maximum number of ids bound to a single follow-up query of the fetch plan.
+     */
+    private static final int FETCH_PLAN_BATCH_SIZE = 1000;
+
+    /**
+     * Provider property of the time zone timestamps are read and bound in, the JVM time zone when absent.
+     */
+    private static final String JDBC_TIME_ZONE = "hibernate.jdbc.time_zone";
+
     private final EntityManager em;
     private final BuilderTools builderTools;
 
+    /**
+     * JDBC fetch size used by {@link #stream(Class, OmniSearchOptions)}.
+     */
+    @Getter
+    @Setter
+    private int streamFetchSize = 500;
+
+    /**
+     * Number of consumed entities after which {@link #stream(Class, OmniSearchOptions)} detaches them from the
+     * persistence context, zero or less to keep them managed.
+     */
+    @Getter
+    @Setter
+    private int streamDetachInterval = 500;
+
+    /**
+     * Name of a provider function that renders {@code count(*) over()}. When set, {@link #searchPage(Class, OmniSearchOptions)}
+     * reads the total from the same query as the page, otherwise the total is derived from the page or counted separately.
+     */
+    @Getter
+    @Setter
+    private String windowCountFunction;
+
+    /**
+     * Estimator used by the {@link CountMode#approximate() approximate} count mode, when {@code null} approximate
+     * counts are exact.
+     */
+    @Getter
+    @Setter
+    private CountEstimator countEstimator;
+
+    /**
+     * When enabled, paginated searches first read the distinct ids of the page and then load the entities by id,
+     * so that joined collections neither duplicate nor truncate the page.
+     */
+    @Getter
+    @Setter
+    private boolean idFirstPagination;
+
+    /**
+     * Cache of the parameterized queries of entity searches and exact counts, keyed by the shape of the request, so
+     * that requests that only differ in their values execute the same query. The predicates of a request are still
+     * built to collect its values. {@code null} to disable.
+     * <p>
+     * Custom predicate builders must bind their values through {@link EntityManagerAdapter#parameter}, values
+     * embedded in a cached query would be reused by the next requests of the same shape. Hibernate only reuses the
+     * translation of a criteria query when {@code hibernate.criteria.copy_tree} is disabled.
+     */
+    @Getter
+    @Setter
+    private QueryTemplateCache templateCache;
+
+    /**
+     * Receives the timings of the phases of every operation, the size of its where clause and of its result, and its
+     * failures. Nested timings are included in their enclosing phase, the conditions and the parsing of their
+     * arguments in the predicate build. {@code null} to disable.
+     */
+    @Getter
+    @Setter
+    private SearchMetrics metrics;
+
     public JpaOmniSearch(EntityManager em) {
         this(em, BuilderTools.DEFAULT);
     }
@@ -27,12 +129,361 @@ public class JpaOmniSearch implements OmniSearch {
 
     @Override
     public <E> List<E> search(Class<E> entityClass, OmniSearchOptions options) {
-        var spec = JpaOmniSearchPredicateBuilder.buildSearchWhereSpec(
-                em,
-                entityClass,
-                options,
-                builderTools
-        );
+        return observe(entityClass, SearchOperation.SEARCH, observation -> searchEntities(entityClass, options, observation));
+    }
+
+    private <E> List<E> searchEntities(Class<E> entityClass, OmniSearchOptions options, SearchObservation observation) {
+        if (idFirstPagination && options.getPagination().isPaginated()) {
+            return loadFetchPlan(entityClass, options, searchIdFirst(entityClass, options, observation), false, observation);
+        }
+        return loadFetchPlan(entityClass, options, list(createSearchQuery(entityClass, options, observation), observation), true, observation);
+    }
+
+    /**
+     * Reads the page in two phases: the distinct ids of the page with the filters and the sort applied, then the
+     * entities of those ids, returned in the order of the first phase.
+     */
+    private <E> List<E> searchIdFirst(Class<E> entityClass, OmniSearchOptions options, SearchObservation observation) {
+        var spec = buildSpec(Object.class, entityClass, options, observation);
+
+        var cb = spec.criteriaBuilder();
+        var query = spec.criteriaQuery();
+        var idPath = idPath(spec.root());
+
+        // grouped by id so that every entity is a single row, a sort path through a collection has a value per
+        // element and is aggregated: its lowest value for ascending orders and its highest for descending ones
+        var orders = new ArrayList<Order>();
+        for (var order : options.getSort().getOrders()) {
+            @SuppressWarnings("unchecked")
+            var path = (Expression<Comparable<Object>>) sortPath(spec, order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(cb.least(path)) : cb.desc(cb.greatest(path)));
+        }
+        orders.add(cb.asc(idPath));
+        query.select(idPath).groupBy(idPath).orderBy(orders);
+
+        var pagination = options.getPagination();
+        var ids = list(createQuery(spec, query)
+                .setFirstResult(pagination.getOffset())
+                .setMaxResults(pagination.getPageSize()), observation);
+
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        var entityQuery = cb.createTupleQuery();
+        var entityRoot = entityQuery.from(entityClass);
+        var entityId = idPath(entityRoot);
+        entityQuery.multiselect(entityRoot, entityId).where(entityId.in(ids));
+
+        var byId = new HashMap<Object, E>();
+        for (var row : list(em.createQuery(entityQuery), observation)) {
+            byId.put(row.get(1), row.get(0, entityClass));
+        }
+
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Streams the results of the search. When {@link #metrics} are set, the operation is reported once the stream is
+     * closed, with the entities consumed by then as its result and its total time from the opening to the closing;
+     * a stream that is never closed is never reported.
+     */
+    @Override
+    public <E> Stream<E> stream(Class<E> entityClass, OmniSearchOptions options) {
+        return observeStream(entityClass, observation -> createSearchQuery(entityClass, options, observation));
+    }
+
+    /**
+     * Streams the results of the query created by the given function, which receives the observation of the
+     * operation, see {@link #stream(Class, OmniSearchOptions)}.
+     */
+    <E> Stream<E> observeStream(Class<E> entityClass, Function<SearchObservation, TypedQuery<E>> createQuery) {
+        var metrics = this.metrics;
+        if (metrics == null) {
+            return stream(createQuery.apply(null), null);
+        }
+
+        var observation = new SearchObservation();
+        var start = System.nanoTime();
+        Stream<E> results;
+        try {
+            results = stream(createQuery.apply(observation), observation);
+        } catch (RuntimeException e) {
+            observation.fail(metrics, entityClass, SearchOperation.STREAM, e, System.nanoTime() - start);
+            throw e;
+        }
+
+        var consumed = new AtomicLong();
+        var closed = new AtomicBoolean();
+        return results
+                .peek(entity -> consumed.incrementAndGet())
+                .onClose(() -> {
+                    if (!closed.compareAndSet(false, true)) return;
+                    observation.addRows(consumed.get());
+                    observation.report(metrics, entityClass, SearchOperation.STREAM, consumed.get(), System.nanoTime() - start);
+                });
+    }
+
+    private <E> Stream<E> stream(TypedQuery<E> query, SearchObservation observation) {
+        for (var hint : FETCH_SIZE_HINTS) {
+            query.setHint(hint, streamFetchSize);
+        }
+
+        var results = execute(query::getResultStream, observation);
+        if (streamDetachInterval <= 0) {
+            return results;
+        }
+
+        return StreamSupport
+                .stream(new DetachingSpliterator<>(em, results.spliterator(), streamDetachInterval), false)
+                .onClose(results::close);
+    }
+
+    /**
+     * Creates the query that {@link #search(Class, OmniSearchOptions)} reads the entities with when the
+     * {@link #idFirstPagination id-first pagination} is disabled, sorted, paginated and bound to the values of the
+     * options, without executing it. The collections of the fetch plan are not loaded by this query.
+     */
+    public <E> TypedQuery<E> createSearchQuery(Class<E> entityClass, OmniSearchOptions options) {
+        return createSearchQuery(entityClass, options, null);
+    }
+
+    private <E> TypedQuery<E> createSearchQuery(Class<E> entityClass, OmniSearchOptions options, SearchObservation observation) {
+        var spec = buildSpec(entityClass, entityClass, options, observation);
+
+        var sort = options.getSort();
+        var query = paginate(createTemplateQuery(spec, options, sort, completed -> applySort(completed, sort)), options.getPagination());
+        var graph = singularFetchGraph(entityClass, options.getFetch());
+        if (graph != null) {
+            query.setHint(FETCH_GRAPH_HINT, graph);
+        }
+        return query;
+    }
+
+    /**
+     * Builds the entity graph of the fetch plan paths that do not traverse a collection, these can be fetched by
+     * the search query itself without multiplying its rows.
+     *
+     * @return the entity graph, or {@code null} if no such path is planned
+     */
+    <E> EntityGraph<E> singularFetchGraph(Class<E> entityClass, Set<String> fetch) {
+        EntityGraph<E> graph = null;
+        for (var path : fetch) {
+            if (traversesCollection(entityClass, path)) continue;
+            if (graph == null) {
+                graph = em.createEntityGraph(entityClass);
+            }
+
+            var attributes = path.split("\\.");
+            if (attributes.length == 1) {
+                graph.addAttributeNodes(attributes[0]);
+                continue;
+            }
+            Subgraph<?> subgraph = graph.addSubgraph(attributes[0]);
+            for (int i = 1; i < attributes.length - 1; i++) {
+                subgraph = subgraph.addSubgraph(attributes[i]);
+            }
+            subgraph.addAttributeNodes(attributes[attributes.length - 1]);
+        }
+        return graph;
+    }
+
+    /**
+     * Loads the fetch plan of the options into the already read entities, with one follow-up query per planned
+     * path and batch of ids, so that the cost does not grow with the number of entities.
+     *
+     * @param graphApplied whether the entities were read with the {@link #singularFetchGraph singular fetch graph}
+     * @return the given entities
+     */
+    <E> List<E> loadFetchPlan(Class<E> entityClass, OmniSearchOptions options, List<E> entities, boolean graphApplied, SearchObservation observation) {
+        var fetch = options.getFetch();
+        if (fetch.isEmpty() || entities.isEmpty()) {
+            return entities;
+        }
+
+        var persistenceUnitUtil = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        var ids = entities.stream().map(persistenceUnitUtil::getIdentifier).toList();
+
+        var cb = em.getCriteriaBuilder();
+        for (var path : fetch) {
+            if (graphApplied && !traversesCollection(entityClass, path)) continue;
+
+            for (int from = 0; from < ids.size(); from += FETCH_PLAN_BATCH_SIZE) {
+                var batch = ids.subList(from, Math.min(from + FETCH_PLAN_BATCH_SIZE, ids.size()));
+
+                var query = cb.createQuery(entityClass);
+                var root = query.from(entityClass);
+                FetchParent<?, ?> parent = root;
+                for (var attribute : path.split("\\.")) {
+                    parent = parent.fetch(attribute, JoinType.LEFT);
+                }
+                query.select(root).distinct(true).where(idPath(root).in(batch));
+
+                log.debug("Loading fetch plan path {} of {} {}", path, batch.size(), entityClass.getSimpleName());
+                list(em.createQuery(query), observation);
+            }
+        }
+        return entities;
+    }
+
+    private boolean traversesCollection(Class<?> entityClass, String path) {
+        var metamodel = em.getMetamodel();
+        ManagedType<?> managedType = metamodel.managedType(entityClass);
+        for (var property : path.split("\\.")) {
+            var attribute = managedType.getAttribute(property);
+            if (attribute.isCollection()) {
+                return true;
+            }
+            if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+                return false;
+            }
+            managedType = metamodel.managedType(attribute.getJavaType());
+        }
+        return false;
+    }
+
+    /**
+     * Applies the sort and the pagination of the options to the query of the spec.
+     */
+    private <Q> TypedQuery<Q> createSearchQuery(JpaOmniSearchPredicateBuilder.SearchQuery<Q, ?> spec, OmniSearchOptions options) {
+        applySort(spec, options.getSort());
+        return paginate(createQuery(spec, spec.criteriaQuery()), options.getPagination());
+    }
+
+    private void applySort(JpaOmniSearchPredicateBuilder.SearchQuery<?, ?> spec, Sort sort) {
+        if (sort.isSorted()) {
+            spec.criteriaQuery().orderBy(toOrders(spec, sort));
+        }
+    }
+
+    static <Q> TypedQuery<Q> paginate(TypedQuery<Q> query, Pagination pagination) {
+        if (pagination.isUnpaginated()) {
+            return query;
+        }
+        return query
+                .setFirstResult(pagination.getOffset())
+                .setMaxResults(pagination.getPageSize());
+    }
+
+    /**
+     * Creates the typed query of the spec from the {@link #templateCache cached} query of the same shape, bound to
+     * the values of the spec. On a miss the criteria query of the spec is completed and cached.
+     *
+     * @param sort     the sort the completed query is ordered by
+     * @param complete completes the criteria query of the spec, it is skipped on a hit
+     */
+    private <Q> TypedQuery<Q> createTemplateQuery(
+            JpaOmniSearchPredicateBuilder.SearchQuery<Q, ?> spec,
+            OmniSearchBaseOptions options,
+            Sort sort,
+            Consumer<JpaOmniSearchPredicateBuilder.SearchQuery<Q, ?>> complete
+    ) {
+        var query = spec.criteriaQuery();
+        if (templateCache == null) {
+            complete.accept(spec);
+            return createQuery(spec, query);
+        }
+
+        var entityClass = spec.root().getJavaType();
+        var shape = QueryShape.of(em.getMetamodel(), entityClass, options, spec.conditions(), sort, builderTools);
+        var key = new TemplateKey(em.getCriteriaBuilder(), builderTools, query.getResultType(), entityClass, shape);
+
+        var parameters = spec.parameters();
+        QueryTemplateCache.Template<Q> template = templateCache.get(key, parameters);
+        if (template != null) {
+            return template.parameters().applyTo(em.createQuery(template.query()), parameters.getValues());
+        }
+
+        complete.accept(spec);
+        templateCache.put(key, new QueryTemplateCache.Template<>(query, parameters));
+        return createQuery(spec, query);
+    }
+
+    @Override
+    public <E, R> List<R> search(Class<E> entityClass, Class<R> projection, OmniSearchOptions options) {
+        if (!projection.isRecord()) {
+            throw new IllegalArgumentException("Projection must be a record: " + projection.getName());
+        }
+        return observe(entityClass, SearchOperation.PROJECTION, observation -> searchProjection(entityClass, projection, options, observation));
+    }
+
+    private <E, R> List<R> searchProjection(Class<E> entityClass, Class<R> projection, OmniSearchOptions options, SearchObservation observation) {
+        var spec = buildSpec(projection, entityClass, options, observation);
+
+        var components = projection.getRecordComponents();
+        var selections = new Selection<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            selections[i] = projectionPath(spec, components[i].getName());
+        }
+        spec.criteriaQuery().select(spec.criteriaBuilder().construct(projection, selections));
+
+        return list(createSearchQuery(spec, options), observation);
+    }
+
+    @Override
+    public <E> List<Map<String, Object>> search(Class<E> entityClass, List<String> properties, OmniSearchOptions options) {
+        return observe(entityClass, SearchOperation.PROJECTION, observation -> searchProperties(entityClass, properties, options, observation));
+    }
+
+    private <E> List<Map<String, Object>> searchProperties(Class<E> entityClass, List<String> properties, OmniSearchOptions options, SearchObservation observation) {
+        var spec = buildSpec(Tuple.class, entityClass, options, observation);
+
+        var selections = new ArrayList<Selection<?>>(properties.size());
+        for (var property : properties) {
+            selections.add(projectionPath(spec, property));
+        }
+        spec.criteriaQuery().multiselect(selections);
+
+        return list(createSearchQuery(spec, options), observation).stream()
+                .map(row -> {
+                    var values = new LinkedHashMap<String, Object>();
+                    for (int i = 0; i < properties.size(); i++) {
+                        values.put(properties.get(i), row.get(i));
+                    }
+                    return (Map<String, Object>) values;
+                })
+                .toList();
+    }
+
+    /**
+     * Resolves a projected property, translated by the properties mapper of the builder tools.
+     */
+    private Path<?> projectionPath(JpaOmniSearchPredicateBuilder.SearchQuery<?, ?> spec, String property) {
+        var mapped = builderTools.getPropertiesMapper().translate(property, spec.root().getJavaType());
+        return sortPath(spec, mapped);
+    }
+
+    @Override
+    public <E> Page<E> searchPage(Class<E> entityClass, OmniSearchOptions options) {
+        return observe(entityClass, SearchOperation.PAGE, observation -> searchPageWithTotal(entityClass, options, observation));
+    }
+
+    private <E> Page<E> searchPageWithTotal(Class<E> entityClass, OmniSearchOptions options, SearchObservation observation) {
+        var pagination = options.getPagination();
+
+        if (windowCountFunction != null && pagination.isPaginated()) {
+            var page = searchPageWithWindowCount(entityClass, options, observation);
+            if (page != null) return page;
+        }
+
+        var content = searchEntities(entityClass, options, observation);
+        var total = totalFromPage(pagination, content.size());
+        if (total < 0) {
+            total = countEntities(entityClass, options, observation);
+        }
+        return new Page<>(content, total, pagination);
+    }
+
+    /**
+     * Reads the page and the total in a single query, the total coming from a {@code count(*) over()} window.
+     *
+     * @return the page, or {@code null} if the total could not be read from the same query
+     */
+    private <E> Page<E> searchPageWithWindowCount(Class<E> entityClass, OmniSearchOptions options, SearchObservation observation) {
+        var spec = buildSpec(Tuple.class, entityClass, options, observation);
 
         var cb = spec.criteriaBuilder();
         var query = spec.criteriaQuery();
@@ -40,42 +491,455 @@ public class JpaOmniSearch implements OmniSearch {
 
         var sort = options.getSort();
         if (sort.isSorted()) {
-            query.orderBy(sort.getOrders().stream()
-                    .map(order -> {
-                        var path = root.get(order.getProperty());
-                        return order.isAscending() ? cb.asc(path) : cb.desc(path);
-                    })
-                    .toList()
-            );
+            query.orderBy(toOrders(spec, sort));
         }
 
+        if (spec.joins().hasCollectionJoins()) {
+            // the window would count the joined rows instead of the entities
+            return null;
+        }
+
+        query.multiselect(root, cb.function(windowCountFunction, Long.class));
+
         var pagination = options.getPagination();
+        var rows = list(createQuery(spec, query)
+                .setFirstResult(pagination.getOffset())
+                .setMaxResults(pagination.getPageSize()), observation);
+
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        var content = rows.stream()
+                .map(row -> row.get(0, entityClass))
+                .toList();
+
+        return new Page<>(loadFetchPlan(entityClass, options, content, false, observation), rows.getFirst().get(1, Long.class), pagination);
+    }
+
+    /**
+     * Derives the total from the size of the page when it is not full.
+     *
+     * @return the total, or {@code -1} if it cannot be derived from the page
+     */
+    static long totalFromPage(Pagination pagination, int size) {
         if (pagination.isUnpaginated()) {
-            return em.createQuery(query).getResultList();
+            return size;
+        }
+        if (size > 0 && size < pagination.getPageSize()) {
+            return (long) pagination.getOffset() + size;
         }
+        if (size == 0 && pagination.getOffset() == 0) {
+            return 0;
+        }
+        return -1;
+    }
 
-        return em
-                .createQuery(query)
-                .setFirstResult(pagination.getOffset())
-                .setMaxResults(pagination.getPageSize())
-                .getResultList();
+    @Override
+    public <E> KeysetPage<E> searchKeyset(Class<E> entityClass, OmniSearchOptions options, KeysetPagination pagination) {
+        return observe(entityClass, SearchOperation.KEYSET, observation -> searchKeysetPage(entityClass, options, pagination, observation));
+    }
+
+    private <E> KeysetPage<E> searchKeysetPage(Class<E> entityClass, OmniSearchOptions options, KeysetPagination pagination, SearchObservation observation) {
+        var spec = buildSpec(Tuple.class, entityClass, options, observation);
+
+        var cb = spec.criteriaBuilder();
+        var query = spec.criteriaQuery();
+        var root = spec.root();
+
+        var keys = keysetOrder(spec, options.getSort());
+        var ordering = keysetOrdering(keys);
+
+        if (!pagination.isFirstPage()) {
+            var after = pagination.getAfterKeys(ordering);
+            if (after.size() != keys.size()) {
+                throw new IllegalArgumentException("Continuation token does not match the requested sort");
+            }
+            query.where(cb.and(query.getRestriction(), seekPredicate(cb, keys, after)));
+        }
+
+        var selections = new ArrayList<Selection<?>>(keys.size() + 1);
+        selections.add(root);
+        for (var key : keys) {
+            selections.add(key.path());
+        }
+        query.multiselect(selections);
+        query.orderBy(keysetOrders(cb, keys));
+
+        var pageSize = pagination.getPageSize();
+        var rows = list(createQuery(spec, query)
+                .setMaxResults(pageSize + 1), observation);
+
+        var hasNext = rows.size() > pageSize;
+        var page = hasNext ? rows.subList(0, pageSize) : rows;
+        var content = loadFetchPlan(entityClass, options, page.stream()
+                .map(row -> row.get(0, entityClass))
+                .toList(), false, observation);
+
+        if (!hasNext) {
+            return new KeysetPage<>(content, null);
+        }
+
+        var last = page.getLast();
+        var lastKeys = new ArrayList<String>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            var value = last.get(i + 1);
+            lastKeys.add(value == null ? null : keyToString(value));
+        }
+
+        return new KeysetPage<>(content, KeysetPagination.encodeToken(ordering, lastKeys));
     }
 
     @Override
     public <E> long count(Class<E> entityClass, OmniSearchBaseOptions options) {
-        var spec = JpaOmniSearchPredicateBuilder.buildSearchWhereSpec(
-                em,
-                Long.class,
-                entityClass,
-                options,
-                builderTools
-        );
+        return observe(entityClass, SearchOperation.COUNT, observation -> countEntities(entityClass, options, observation));
+    }
+
+    private <E> long countEntities(Class<E> entityClass, OmniSearchBaseOptions options, SearchObservation observation) {
+        var countMode = options.getCountMode();
+        return switch (countMode.getType()) {
+            case EXACT -> exactCount(entityClass, options, observation);
+            case BOUNDED -> boundedCount(entityClass, options, countMode.getLimit(), observation);
+            case APPROXIMATE -> approximateCount(entityClass, options, observation);
+        };
+    }
+
+    /**
+     * Detaches the entity from the entity manager of this search.
+     */
+    @Override
+    public void detach(Object entity) {
+        em.detach(entity);
+    }
+
+    private <E> long exactCount(Class<E> entityClass, OmniSearchBaseOptions options, SearchObservation observation) {
+        var spec = buildSpec(Long.class, entityClass, options, observation);
+
+        var query = createTemplateQuery(spec, options, Sort.unsorted(), completed -> {
+            var cb = completed.criteriaBuilder();
+            var root = completed.root();
+            completed.criteriaQuery().select(completed.joins().hasCollectionJoins() ? cb.countDistinct(root) : cb.count(root));
+        });
+        return single(query, observation);
+    }
+
+    /**
+     * Counts up to {@code limit} matches by reading at most {@code limit} ids, so the database can stop scanning
+     * as soon as the limit is reached.
+     */
+    private <E> long boundedCount(Class<E> entityClass, OmniSearchBaseOptions options, long limit, SearchObservation observation) {
+        var spec = buildSpec(Object.class, entityClass, options, observation);
 
-        var cb = spec.criteriaBuilder();
         var query = spec.criteriaQuery();
         var root = spec.root();
 
-        query.select(cb.count(root));
-        return em.createQuery(query).getSingleResult();
+        query.select(idPath(root));
+        query.distinct(spec.joins().hasCollectionJoins());
+
+        return list(createQuery(spec, query)
+                .setMaxResults((int) Math.min(limit, Integer.MAX_VALUE)), observation)
+                .size();
+    }
+
+    <E> long approximateCount(Class<E> entityClass, OmniSearchBaseOptions options, SearchObservation observation) {
+        var search = options.getSearch();
+        var isUnfiltered = (search == null || search.isBlank()) && options.getConditions() == null;
+
+        if (countEstimator != null && isUnfiltered) {
+            var estimate = countEstimator.estimate(em, entityClass);
+            if (estimate.isPresent()) {
+                return estimate.getAsLong();
+            }
+        }
+        return exactCount(entityClass, options, observation);
+    }
+
+    /**
+     * Runs the operation, reporting its measurements to the {@link #metrics} if present. The action receives the
+     * observation of the operation, {@code null} when it is not measured, and passes it to the operations it runs
+     * itself, like the count of a page, so that they are measured as part of it.
+     */
+    <R> R observe(Class<?> entityClass, SearchOperation operation, Function<SearchObservation, R> action) {
+        var metrics = this.metrics;
+        if (metrics == null) {
+            return action.apply(null);
+        }
+
+        var observation = new SearchObservation();
+        var start = System.nanoTime();
+        R result;
+        try {
+            result = action.apply(observation);
+        } catch (RuntimeException e) {
+            observation.fail(metrics, entityClass, operation, e, System.nanoTime() - start);
+            throw e;
+        }
+        observation.report(metrics, entityClass, operation, resultSize(result), System.nanoTime() - start);
+        return result;
+    }
+
+    private static long resultSize(Object result) {
+        if (result instanceof Collection<?> list) return list.size();
+        if (result instanceof Page<?> page) return page.content().size();
+        if (result instanceof KeysetPage<?> page) return page.content().size();
+        if (result instanceof Long count) return count;
+        return -1;
+    }
+
+    private <Q, E> JpaOmniSearchPredicateBuilder.SearchQuery<Q, E> buildSpec(Class<Q> queryClass, Class<E> entityClass, OmniSearchBaseOptions options, SearchObservation observation) {
+        return JpaOmniSearchPredicateBuilder.buildSearchWhereSpec(em, queryClass, entityClass, options, builderTools, observation);
+    }
+
+    /**
+     * Runs a database query, measured as {@link SearchPhase#QUERY_EXECUTION} of the observed operation if any.
+     */
+    private static <R> R execute(Supplier<R> query, SearchObservation observation) {
+        return observation == null ? query.get() : observation.time(SearchPhase.QUERY_EXECUTION, query);
+    }
+
+    static <R> List<R> list(TypedQuery<R> query, SearchObservation observation) {
+        var results = execute(query::getResultList, observation);
+        if (observation != null) {
+            observation.addRows(results.size());
+        }
+        return results;
+    }
+
+    static <R> R single(TypedQuery<R> query, SearchObservation observation) {
+        var result = execute(query::getSingleResult, observation);
+        if (observation != null) {
+            observation.addRows(1);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the typed query of a criteria query built on the spec, with the parameters of its predicates bound.
+     */
+    private <Q> TypedQuery<Q> createQuery(JpaOmniSearchPredicateBuilder.SearchQuery<?, ?> spec, CriteriaQuery<Q> query) {
+        return spec.parameters().applyTo(em.createQuery(query));
+    }
+
+    private Path<?> idPath(Root<?> root) {
+        return root.get(idName(root.getJavaType()));
+    }
+
+    String idName(Class<?> entityClass) {
+        var entityType = em.getMetamodel().entity(entityClass);
+        if (!entityType.hasSingleIdAttribute()) {
+            throw new UnsupportedOperationException("A single id attribute is required on " + entityClass.getName());
+        }
+        return entityType.getId(entityType.getIdType().getJavaType()).getName();
+    }
+
+    private List<Order> toOrders(JpaOmniSearchPredicateBuilder.SearchQuery<?, ?> spec, Sort sort) {
+        var cb = spec.criteriaBuilder();
+        return sort.getOrders().stream()
+                .map(order -> {
+                    var path = sortPath(spec, order.getProperty());
+                    return order.isAscending() ? cb.asc(path) : cb.desc(path);
+                })
+                .toList();
+    }
+
+    /**
+     * Resolves a sort property, reusing the joins of the predicates so that sorting by an association does not
+     * join it a second time.
+     */
+    private Path<?> sortPath(JpaOmniSearchPredicateBuilder.SearchQuery<?, ?> spec, String property) {
+        return spec.joins().path(spec.root(), property, JoinType.LEFT, em.getMetamodel());
+    }
+
+    /**
+     * Derives a unique and stable ordering from the requested sort by appending the entity id.
+     */
+    private List<KeysetKey> keysetOrder(JpaOmniSearchPredicateBuilder.SearchQuery<?, ?> spec, Sort sort) {
+        var root = spec.root();
+        var idName = idName(root.getJavaType());
+
+        var keys = new ArrayList<KeysetKey>();
+        var hasId = false;
+        for (var order : sort.getOrders()) {
+            var property = order.getProperty();
+            var isId = property.equals(idName);
+            keys.add(new KeysetKey(property, sortPath(spec, property), order.isAscending(), !isId && isNullable(root.getJavaType(), property)));
+            hasId |= isId;
+        }
+        if (!hasId) {
+            keys.add(new KeysetKey(idName, root.get(idName), true, false));
+        }
+        return keys;
+    }
+
+    /**
+     * Describes the properties and directions of a keyset ordering, recorded in its continuation tokens.
+     */
+    private static String keysetOrdering(List<KeysetKey> keys) {
+        var ordering = new StringJoiner(",");
+        for (var key : keys) {
+            ordering.add(key.property() + (key.ascending() ? " asc" : " desc"));
+        }
+        return ordering.toString();
+    }
+
+    /**
+     * Verifies if a sort property may be {@code null}, that is, it is reached through an association, which may be
+     * missing, or its attribute is optional.
+     */
+    private boolean isNullable(Class<?> entityClass, String property) {
+        var metamodel = em.getMetamodel();
+        ManagedType<?> managedType = metamodel.managedType(entityClass);
+        var properties = property.split("\\.");
+        for (int i = 0; i < properties.length; i++) {
+            var attribute = managedType.getAttribute(properties[i]);
+            if (i == properties.length - 1) {
+                return !(attribute instanceof SingularAttribute<?, ?> singular)
+                        || singular.isOptional() && !singular.getJavaType().isPrimitive();
+            }
+            if (attribute.isAssociation() || attribute.isCollection()) {
+                return true;
+            }
+            managedType = metamodel.managedType(attribute.getJavaType());
+        }
+        return true;
+    }
+
+    /**
+     * Orders by the keys, the {@code null} values of the nullable keys last whatever the direction, so that the
+     * ordering does not depend on the null precedence of the database.
+     */
+    private static List<Order> keysetOrders(CriteriaBuilder cb, List<KeysetKey> keys) {
+        var orders = new ArrayList<Order>(keys.size());
+        for (var key : keys) {
+            if (key.nullable()) {
+                orders.add(cb.asc(cb.selectCase().when(cb.isNull(key.path()), 1).otherwise(0)));
+            }
+            orders.add(key.ascending() ? cb.asc(key.path()) : cb.desc(key.path()));
+        }
+        return orders;
+    }
+
+    /**
+     * Builds the "after this key" range predicate, expanded as
+     * {@code (k1 > v1) or (k1 = v1 and k2 > v2) or ...} so that mixed sort directions are supported. The
+     * {@code null} values of a nullable key come after its other values and are equal to each other, see
+     * {@link #keysetOrders}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seekPredicate(CriteriaBuilder cb, List<KeysetKey> keys, List<String> after) {
+        var argumentParser = builderTools.getArgumentParser();
+        var values = new ArrayList<Comparable>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            var key = keys.get(i);
+            var value = after.get(i);
+            if (value == null && !key.nullable()) {
+                throw new IllegalArgumentException("Continuation token does not match the requested sort");
+            }
+            values.add(value == null ? null : (Comparable) argumentParser.parse(value, key.path().getJavaType()));
+        }
+
+        var alternatives = new ArrayList<Predicate>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            var key = keys.get(i);
+            var value = values.get(i);
+            if (value == null) {
+                // nothing sorts after a null value of this key
+                continue;
+            }
+            var conjunction = new ArrayList<Predicate>(i + 1);
+            for (int j = 0; j < i; j++) {
+                var previous = values.get(j);
+                conjunction.add(previous == null ? cb.isNull(keys.get(j).path()) : cb.equal(keys.get(j).path(), previous));
+            }
+            var path = (Expression<Comparable>) key.path();
+            var beyond = key.ascending() ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+            conjunction.add(key.nullable() ? cb.or(beyond, cb.isNull(path)) : beyond);
+            alternatives.add(cb.and(conjunction.toArray(Predicate[]::new)));
+        }
+        return cb.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    /**
+     * Encodes a key value independently of the time zone of the node: a date or time of the database as its local
+     * value, which any node binds back to the same value, and any other {@link Date} as its instant. When a JDBC time
+     * zone is configured the timestamps are read and bound in that zone, so they are encoded as instants too.
+     */
+    private String keyToString(Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate().toString();
+        }
+        if (value instanceof java.sql.Time time) {
+            return LocalDate.EPOCH.atTime(time.toLocalTime()).toString();
+        }
+        if (value instanceof java.sql.Timestamp timestamp && !hasJdbcTimeZone()) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof Date date) {
+            return date.toInstant().toString();
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        return value.toString();
+    }
+
+    private boolean hasJdbcTimeZone() {
+        return em.getEntityManagerFactory().getProperties().get(JDBC_TIME_ZONE) != null;
+    }
+
+    /**
+     * Detaches the streamed entities in batches once they have been handed to the consumer, so the persistence
+     * context does not grow with the size of the result.
+     */
+    private static final class DetachingSpliterator<E> implements Spliterator<E> {
+
+        private final EntityManager em;
+        private final Spliterator<E> source;
+        private final int interval;
+        private final List<E> consumed;
+
+        private DetachingSpliterator(EntityManager em, Spliterator<E> source, int interval) {
+            this.em = em;
+            this.source = source;
+            this.interval = interval;
+            this.consumed = new ArrayList<>(interval);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            var advanced = source.tryAdvance(entity -> {
+                action.accept(entity);
+                consumed.add(entity);
+            });
+            if (consumed.size() >= interval || (!advanced && !consumed.isEmpty())) {
+                consumed.forEach(em::detach);
+                consumed.clear();
+            }
+            return advanced;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ~(SIZED | SUBSIZED);
+        }
+    }
+
+    /**
+     * @param nullable whether the key may be {@code null}, see {@link #keysetOrders}
+     */
+    private record KeysetKey(String property, Path<?> path, boolean ascending, boolean nullable) {
+    }
+
+    private record TemplateKey(CriteriaBuilder criteriaBuilder, BuilderTools builderTools, Class<?> resultType, Class<?> entityClass, String shape) {
     }
 }
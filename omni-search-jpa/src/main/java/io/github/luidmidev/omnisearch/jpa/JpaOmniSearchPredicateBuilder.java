@@ -3,10 +3,17 @@ package io.github.luidmidev.omnisearch.jpa;
 
 import io.github.luidmidev.omnisearch.core.OmniSearchBaseOptions;
 import io.github.luidmidev.omnisearch.core.OmniSearchOptions;
-import io.github.luidmidev.omnisearch.core.SearchIgnore;
+import io.github.luidmidev.omnisearch.core.SearchMatch;
+import io.github.luidmidev.omnisearch.core.metrics.SearchPhase;
+import io.github.luidmidev.omnisearch.core.schemas.CaseStrategy;
+import io.github.luidmidev.omnisearch.core.schemas.MatchMode;
 import io.github.luidmidev.omnisearch.jpa.rsql.builder.BuilderTools;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.CollectionStrategy;
 import io.github.luidmidev.omnisearch.jpa.rsql.JpaPredicateVisitor;
 import io.github.luidmidev.omnisearch.jpa.rsql.EntityManagerAdapter;
+import io.github.luidmidev.omnisearch.jpa.rsql.JoinRegistry;
+import io.github.luidmidev.omnisearch.jpa.rsql.QueryParameters;
+import cz.jirutka.rsql.parser.ast.Node;
 import jakarta.persistence.*;
 import jakarta.persistence.criteria.*;
 import lombok.experimental.UtilityClass;
@@ -14,142 +21,143 @@ import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
 import java.lang.reflect.Field;
-import java.time.Year;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Pattern;
 
 @Slf4j
 @UtilityClass
 public class JpaOmniSearchPredicateBuilder {
 
-    /**
-     * Pattern used to match UUID strings.
-     */
-    private static final Pattern UUID_PATTERN = Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
-
     private static final Map<Class<?>, List<Field>> FIELD_CACHE = new ConcurrentHashMap<>();
 
     public static List<Field> getCachedFields(Class<?> clazz) {
         return FIELD_CACHE.computeIfAbsent(clazz, ReflectionUtils::getAllFields);
     }
 
-    private static <E> Predicate searchInAllColumns(@NotNull String search, Root<E> root, CriteriaBuilder cb, Set<String> joinColumns) {
+    private static <E> Predicate searchInAllColumns(@NotNull SearchTerm search, Root<E> root, EntityManagerAdapter manager, Set<String> joinColumns, boolean exists) {
 
-        var predicates = new ArrayList<>(getSearchPredicates(search, root, cb));
+        var cb = manager.getCriteriaBuilder();
+        var metamodel = manager.getMetamodel();
+        var predicates = new ArrayList<>(getSearchPredicates(search, root, manager, JpaSearchPlan.of(metamodel, root.getJavaType()).attributes(), exists));
 
+        var managedType = metamodel.managedType(root.getJavaType());
         for (var joinColumn : joinColumns) {
-            var join = root.join(joinColumn, JoinType.LEFT);
-            predicates.addAll(getSearchPredicates(search, join, cb));
+            if (exists && managedType.getAttribute(joinColumn).isCollection()) {
+                var subquery = manager.existsSubquery();
+                var subqueryManager = manager.forSubquery(subquery);
+                var join = subqueryManager.getJoinRegistry().join(JoinRegistry.correlate(subquery, root), joinColumn, JoinType.INNER);
+                var joinPredicates = getSearchPredicates(search, join, subqueryManager, JpaSearchPlan.of(metamodel, join.getJavaType()).attributes(), true);
+                if (!joinPredicates.isEmpty()) {
+                    subquery.where(cb.or(joinPredicates.toArray(Predicate[]::new)));
+                    predicates.add(cb.exists(subquery));
+                }
+                continue;
+            }
+            var join = manager.getJoinRegistry().join(root, joinColumn, JoinType.LEFT);
+            predicates.addAll(getSearchPredicates(search, join, manager, JpaSearchPlan.of(metamodel, join.getJavaType()).attributes(), exists));
         }
 
         return cb.or(predicates.toArray(Predicate[]::new));
     }
 
-    @SuppressWarnings({"java:S135", "java:S3776"})
-    private static Collection<Predicate> getSearchPredicates(String search, Path<?> path, CriteriaBuilder cb) {
+    private static Collection<Predicate> getSearchPredicates(SearchTerm search, Path<?> path, EntityManagerAdapter manager, List<JpaSearchPlan.SearchAttribute> attributes, boolean exists) {
 
-        var javaType = path.getJavaType();
+        var cb = manager.getCriteriaBuilder();
         var predicates = new ArrayList<Predicate>();
 
-        for (var field : getCachedFields(javaType)) {
-
-            if (field.isAnnotationPresent(SearchIgnore.class) || field.isAnnotationPresent(Transient.class)) {
-                continue;
-            }
-
-            var propertyName = field.getName();
-
-            if (field.isAnnotationPresent(Embedded.class)) {
-                var nextPath = path.get(propertyName);
-                predicates.addAll(getSearchPredicates(search, nextPath, cb));
-                continue;
-            }
-
-            if (field.isAnnotationPresent(ElementCollection.class) && path instanceof From<?, ?> from) {
-                var nextPath = from.join(propertyName, JoinType.LEFT);
-                predicates.addAll(getElementCollectionPredicates(search, nextPath, cb));
-                continue;
-            }
-
-            try {
-                var nextPath = path.get(propertyName);
-                predicates.addAll(getBasicPredicates(search, nextPath, cb));
-            } catch (IllegalArgumentException e) {
-                log.debug("Field {} not found in {}", field.getName(), javaType.getName(), e);
+        for (var attribute : attributes) {
+            var propertyName = attribute.name();
+
+            switch (attribute.nesting()) {
+                case EMBEDDED -> predicates.addAll(getSearchPredicates(search, path.get(propertyName), manager, attribute.children(), exists));
+                case ELEMENT_COLLECTION -> {
+                    if (path instanceof From<?, ?> from) {
+                        if (exists) {
+                            var subquery = manager.existsSubquery();
+                            var subqueryManager = manager.forSubquery(subquery);
+                            var nextPath = subqueryManager.getJoinRegistry().join(JoinRegistry.correlate(subquery, from), propertyName, JoinType.INNER);
+                            var elementPredicates = getElementPredicates(search, nextPath, subqueryManager, attribute, true);
+                            if (!elementPredicates.isEmpty()) {
+                                subquery.where(cb.or(elementPredicates.toArray(Predicate[]::new)));
+                                predicates.add(cb.exists(subquery));
+                            }
+                        } else {
+                            var nextPath = manager.getJoinRegistry().join(from, propertyName, JoinType.LEFT);
+                            predicates.addAll(getElementPredicates(search, nextPath, manager, attribute, false));
+                        }
+                    }
+                }
+                case BASIC -> predicates.addAll(getBasicPredicates(search, path.get(propertyName), manager, attribute));
             }
-
         }
         return predicates;
     }
 
-    private static Collection<Predicate> getElementCollectionPredicates(String search, From<?, ?> from, CriteriaBuilder cb) {
-        var javaType = from.getJavaType();
+    private static Collection<Predicate> getElementPredicates(SearchTerm search, Path<?> element, EntityManagerAdapter manager, JpaSearchPlan.SearchAttribute attribute, boolean exists) {
+        return attribute.children().isEmpty()
+                ? getBasicPredicates(search, element, manager, attribute)
+                : getSearchPredicates(search, element, manager, attribute.children(), exists);
+    }
 
-        if (javaType.isAnnotationPresent(Embeddable.class)) {
-            return getSearchPredicates(search, from, cb);
+    private static Collection<Predicate> getBasicPredicates(SearchTerm term, Path<?> path, EntityManagerAdapter manager, JpaSearchPlan.SearchAttribute attribute) {
+        var value = searchValue(term, attribute);
+        if (value == null) {
+            return List.of();
         }
-
-        return getBasicPredicates(search, from, cb);
+        return List.of(switch (attribute.category()) {
+            case STRING -> textPredicate(term, path.as(String.class), manager, attribute.match());
+            case ENUM -> in(manager, path, (Collection<?>) value);
+            default -> equalTo(manager, path, value);
+        });
     }
 
-    private static Collection<Enum<?>> searchEnumCandidates(Class<? extends Enum<?>> enumType, String value) {
-        var set = new HashSet<Enum<?>>();
-        var constants = enumType.getEnumConstants();
-        for (var constant : constants) {
-            if (constant.name().toLowerCase().contains(value.toLowerCase())) {
-                set.add(constant);
-                continue;
-            }
-            if (constant instanceof JpaEnumSearchCandidate enumCandidate && enumCandidate.isCandidate(value)) {
-                set.add(constant);
+    /**
+     * Gets the value a term is compared with on a leaf attribute, the candidate constants for enum attributes.
+     *
+     * @return the value, or {@code null} if the term cannot match the attribute
+     */
+    static Object searchValue(SearchTerm term, JpaSearchPlan.SearchAttribute attribute) {
+        return switch (attribute.category()) {
+            case STRING -> term.value();
+            case UUID -> term.uuid();
+            case NUMERIC -> term.numberOf(attribute.javaType());
+            case BOOLEAN -> term.bool();
+            case YEAR -> term.year();
+            case DATE -> term.date();
+            case ENUM -> {
+                @SuppressWarnings("unchecked")
+                var candidates = term.enumCandidates((Class<? extends Enum<?>>) attribute.javaType());
+                yield candidates.isEmpty() ? null : candidates;
             }
-        }
-        return set;
+        };
     }
 
-    @SuppressWarnings("java:S3776")
-    private static Collection<Predicate> getBasicPredicates(String search, Path<?> path, CriteriaBuilder cb) {
-        var javaType = path.getJavaType();
-
-        if (String.class.isAssignableFrom(javaType)) {
-            return Collections.singleton(cb.like(cb.lower(path.as(String.class)), "%" + search.toLowerCase() + "%"));
-        }
-
-        if (UUID.class.isAssignableFrom(javaType) && UUID_PATTERN.matcher(search).matches()) {
-            return Collections.singleton(cb.equal(path, UUID.fromString(search)));
-        }
-
-        var isNumber = Number.class.isAssignableFrom(javaType.isPrimitive() ? ReflectionUtils.getWrapperType(javaType) : javaType);
-        if (isNumber) {
-            var numberPredicates = new ArrayList<Predicate>();
-            for (var parser : ParseNumber.PARSERS) {
-                var numberType = parser.type();
-                if (javaType.isAssignableFrom(numberType) && search.matches("\\d+")) {
-                    var converted = parser.parse(search);
-                    numberPredicates.add(cb.equal(path, converted));
-                }
-            }
-            return numberPredicates;
-        }
+    private static Predicate textPredicate(SearchTerm term, Expression<String> column, EntityManagerAdapter manager, SearchMatch match) {
+        var cb = manager.getCriteriaBuilder();
+        var matchMode = match != null ? match.value() : term.matchMode();
+        var lowerCase = match == null || match.caseStrategy() == CaseStrategy.LOWER;
 
-        var isBoolean = Boolean.class.isAssignableFrom(javaType) || boolean.class.isAssignableFrom(javaType);
-        if (isBoolean && search.matches("true|false")) {
-            return Collections.singleton(cb.equal(path, Boolean.parseBoolean(search)));
+        var expression = lowerCase ? cb.lower(column) : column;
+        if (matchMode == MatchMode.EXACT) {
+            var value = lowerCase ? term.value().toLowerCase() : term.value();
+            return manager.isParameterized() ? cb.equal(expression, manager.parameter(value)) : cb.equal(expression, value);
         }
+        var pattern = term.likePattern(matchMode, lowerCase);
+        return manager.isParameterized()
+                ? cb.like(expression, manager.parameter(pattern), SearchTerm.LIKE_ESCAPE)
+                : cb.like(expression, pattern, SearchTerm.LIKE_ESCAPE);
+    }
 
-        if (Year.class.isAssignableFrom(javaType) && search.matches("\\d{4}")) {
-            return Collections.singleton((cb.equal(path, Year.parse(search))));
-        }
+    private static Predicate equalTo(EntityManagerAdapter manager, Path<?> path, Object value) {
+        var cb = manager.getCriteriaBuilder();
+        return manager.isParameterized() ? cb.equal(path, manager.parameter(value)) : cb.equal(path, value);
+    }
 
-        if (javaType.isEnum()) {
-            @SuppressWarnings("unchecked")
-            var candidates = searchEnumCandidates((Class<? extends Enum<?>>) javaType, search);
-            if (candidates.isEmpty()) return List.of();
-            return Collections.singleton(path.in(candidates));
+    private static Predicate in(EntityManagerAdapter manager, Path<?> path, Collection<?> values) {
+        if (!manager.isParameterized()) {
+            return path.in(values);
         }
-
-        return Collections.emptyList();
+        return path.in(values.stream().map(manager::parameter).toArray(Expression[]::new));
     }
 
 
@@ -170,15 +178,52 @@ public class JpaOmniSearchPredicateBuilder {
             OmniSearchBaseOptions options,
             BuilderTools builderTools
     ) {
+        return buildSearchWhereSpec(em, queryClass, entityClass, options, builderTools, null);
+    }
+
+    /**
+     * Builds the query of the options, adding the build time, the parsing time of the arguments and the size of the
+     * where clause to the given observation if present.
+     */
+    <Q, E> SearchQuery<Q, E> buildSearchWhereSpec(
+            EntityManager em,
+            Class<Q> queryClass,
+            Class<E> entityClass,
+            OmniSearchBaseOptions options,
+            BuilderTools builderTools,
+            SearchObservation observation
+    ) {
+        if (observation == null) {
+            return createSearchWhereSpec(em, queryClass, entityClass, options, builderTools, null);
+        }
+        var observedTools = observation.observe(builderTools);
+        return observation.time(SearchPhase.PREDICATE_BUILD, () -> createSearchWhereSpec(em, queryClass, entityClass, options, observedTools, observation));
+    }
+
+    private <Q, E> SearchQuery<Q, E> createSearchWhereSpec(
+            EntityManager em,
+            Class<Q> queryClass,
+            Class<E> entityClass,
+            OmniSearchBaseOptions options,
+            BuilderTools builderTools,
+            SearchObservation observation
+    ) {
 
         var cb = em.getCriteriaBuilder();
         var query = cb.createQuery(queryClass);
         var root = query.from(entityClass);
 
-        var predicate = buildPredicate(em, cb, root, options, builderTools);
+        var parameters = new QueryParameters();
+        var manager = new EntityManagerAdapter(em, query, parameters);
+        var conditions = optimize(manager, root, options, builderTools, observation);
+        var predicate = buildPredicate(manager, root, options, conditions, builderTools, observation);
 
+        if (observation != null) {
+            var filtered = options.getConditions() != null || (options.getSearch() != null && !options.getSearch().isBlank());
+            observation.addPredicates(filtered ? predicate : null, manager.getJoinRegistry().size());
+        }
         query.where(predicate);
-        return new SearchQuery<>(cb, query, root);
+        return new SearchQuery<>(cb, query, root, manager.getJoinRegistry(), parameters, conditions);
     }
 
 
@@ -198,25 +243,89 @@ public class JpaOmniSearchPredicateBuilder {
             OmniSearchBaseOptions options,
             BuilderTools builderTools
     ) {
+        return buildPredicate(new EntityManagerAdapter(em::getMetamodel, () -> cb), root, options, builderTools);
+    }
 
-        var predicate = cb.conjunction();
+    /**
+     * Builds the predicate of the options, every join created is registered in the
+     * {@link EntityManagerAdapter#getJoinRegistry() join registry} of the given adapter. With the
+     * {@link CollectionStrategy#EXISTS} strategy, collections are tested in subqueries of the adapter query instead.
+     */
+    public static <M> Predicate buildPredicate(
+            EntityManagerAdapter manager,
+            Root<M> root,
+            OmniSearchBaseOptions options,
+            BuilderTools builderTools
+    ) {
+        return buildPredicate(manager, root, options, optimize(manager, root, options, builderTools, null), builderTools, null);
+    }
 
-        var search = options.getSearch();
-        var isNullOrEmpty = search == null || search.isBlank();
-        if (!isNullOrEmpty) {
-            predicate = searchInAllColumns(search, root, cb, options.getJoins());
+    /**
+     * Optimizes the conditions of the options.
+     *
+     * @return the optimized conditions, empty if there are none or they can never match
+     */
+    private static <M> Optional<Node> optimize(
+            EntityManagerAdapter manager,
+            Root<M> root,
+            OmniSearchBaseOptions options,
+            BuilderTools builderTools,
+            SearchObservation observation
+    ) {
+        var conditions = options.getConditions();
+        if (conditions == null) {
+            return Optional.empty();
         }
+        var optimizer = builderTools.getNodeOptimizer();
+        return observation == null
+                ? optimizer.optimize(conditions, root.getJavaType(), manager, builderTools)
+                : observation.time(SearchPhase.CONDITIONS, () -> optimizer.optimize(conditions, root.getJavaType(), manager, builderTools));
+    }
 
-        var conditions = options.getConditions();
-        if (conditions != null) {
+    private static <M> Predicate buildPredicate(
+            EntityManagerAdapter manager,
+            Root<M> root,
+            OmniSearchBaseOptions options,
+            Optional<Node> conditions,
+            BuilderTools builderTools,
+            SearchObservation observation
+    ) {
+
+        var cb = manager.getCriteriaBuilder();
+
+        // the conditions are built first so that the associations they compare are inner joined, and shared as such
+        // with the search and the sort
+        Predicate filtersPredicate = null;
+        if (options.getConditions() != null) {
+            if (conditions.isEmpty()) {
+                return cb.disjunction();
+            }
             var visitor = new JpaPredicateVisitor<>(root, builderTools);
-            var filtersPredicate = conditions.accept(visitor, new EntityManagerAdapter(em));
-            predicate = cb.and(predicate, filtersPredicate);
+            filtersPredicate = observation == null
+                    ? conditions.get().accept(visitor, manager)
+                    : observation.time(SearchPhase.CONDITIONS, () -> conditions.get().accept(visitor, manager));
         }
 
-        return predicate;
+        var search = options.getSearch();
+        var isNullOrEmpty = search == null || search.isBlank();
+        if (isNullOrEmpty) {
+            return filtersPredicate != null ? filtersPredicate : cb.conjunction();
+        }
+
+        var exists = builderTools.getCollectionStrategy() == CollectionStrategy.EXISTS && manager.getQuery() != null;
+        var terms = SearchTerm.tokenize(search, options.getSearchMode(), builderTools);
+        var termPredicates = new Predicate[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            termPredicates[i] = searchInAllColumns(terms.get(i), root, manager, options.getJoins(), exists);
+        }
+        var predicate = cb.and(termPredicates);
+        return filtersPredicate != null ? cb.and(predicate, filtersPredicate) : predicate;
     }
 
-    record SearchQuery<Q, M>(CriteriaBuilder criteriaBuilder, CriteriaQuery<Q> criteriaQuery, Root<M> root) {
+    /**
+     * @param conditions the optimized conditions the where clause was built from, empty if there are none or they
+     *                   can never match
+     */
+    record SearchQuery<Q, M>(CriteriaBuilder criteriaBuilder, CriteriaQuery<Q> criteriaQuery, Root<M> root, JoinRegistry joins, QueryParameters parameters, Optional<Node> conditions) {
     }
 }
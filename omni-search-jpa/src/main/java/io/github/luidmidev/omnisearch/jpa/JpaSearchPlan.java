@@ -0,0 +1,205 @@
+package io.github.luidmidev.omnisearch.jpa;
+
+import io.github.luidmidev.omnisearch.core.SearchIgnore;
+import io.github.luidmidev.omnisearch.core.SearchMatch;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precompiled description of the attributes of a managed type that take part in the global search.
+ * <p>
+ * The plan is built once per class and metamodel from the JPA {@link Metamodel}, so the per-request work is reduced
+ * to binding the search term to the attributes listed here. Persistence units mapping the same class differently
+ * get plans of their own, which are released with their metamodel.
+ */
+@Slf4j
+final class JpaSearchPlan {
+
+    private static final Map<Metamodel, Map<Class<?>, JpaSearchPlan>> PLAN_CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Class<?> javaType;
+    private final List<SearchAttribute> attributes;
+
+    private JpaSearchPlan(Class<?> javaType, List<SearchAttribute> attributes) {
+        this.javaType = javaType;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Gets the cached plan for the given managed type in the given metamodel, compiling it on first use.
+     *
+     * @param metamodel the metamodel that describes the managed type
+     * @param javaType  the entity or embeddable class
+     * @return the search plan of the class
+     */
+    static JpaSearchPlan of(Metamodel metamodel, Class<?> javaType) {
+        return PLAN_CACHE.computeIfAbsent(metamodel, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(javaType, type -> compile(metamodel, type));
+    }
+
+    Class<?> javaType() {
+        return javaType;
+    }
+
+    List<SearchAttribute> attributes() {
+        return attributes;
+    }
+
+    /**
+     * Lists the dot-separated paths of every searchable leaf attribute of the plan.
+     *
+     * @return the searchable attribute paths
+     */
+    List<String> paths() {
+        var paths = new ArrayList<String>();
+        collectPaths("", attributes, paths);
+        return paths;
+    }
+
+    private static void collectPaths(String prefix, List<SearchAttribute> attributes, List<String> paths) {
+        for (var attribute : attributes) {
+            var path = prefix + attribute.name();
+            if (attribute.children().isEmpty()) {
+                paths.add(path);
+            } else {
+                collectPaths(path + ".", attribute.children(), paths);
+            }
+        }
+    }
+
+    private static JpaSearchPlan compile(Metamodel metamodel, Class<?> javaType) {
+        log.debug("Compiling search plan for {}", javaType.getName());
+        return new JpaSearchPlan(javaType, compileAttributes(metamodel.managedType(javaType)));
+    }
+
+    private static List<SearchAttribute> compileAttributes(ManagedType<?> managedType) {
+        var javaType = managedType.getJavaType();
+        var fields = new HashMap<String, Integer>();
+        var declared = JpaOmniSearchPredicateBuilder.getCachedFields(javaType);
+        for (int i = 0; i < declared.size(); i++) {
+            fields.putIfAbsent(declared.get(i).getName(), i);
+        }
+
+        var sorted = new ArrayList<Attribute<?, ?>>(managedType.getAttributes());
+        sorted.sort(Comparator
+                .comparing((Attribute<?, ?> attribute) -> fields.getOrDefault(attribute.getName(), Integer.MAX_VALUE))
+                .thenComparing(Attribute::getName)
+        );
+
+        var attributes = new ArrayList<SearchAttribute>();
+        for (var attribute : sorted) {
+            if (findAnnotation(attribute, javaType, SearchIgnore.class) != null) continue;
+            var compiled = compileAttribute(attribute, findAnnotation(attribute, javaType, SearchMatch.class));
+            if (compiled != null) attributes.add(compiled);
+        }
+        return List.copyOf(attributes);
+    }
+
+    private static SearchAttribute compileAttribute(Attribute<?, ?> attribute, SearchMatch match) {
+        var name = attribute.getName();
+        return switch (attribute.getPersistentAttributeType()) {
+            case EMBEDDED -> {
+                var children = compileAttributes((ManagedType<?>) ((SingularAttribute<?, ?>) attribute).getType());
+                yield children.isEmpty() ? null : SearchAttribute.nested(name, Nesting.EMBEDDED, children);
+            }
+            case ELEMENT_COLLECTION -> {
+                var elementType = ((PluralAttribute<?, ?, ?>) attribute).getElementType();
+                if (elementType.getPersistenceType() == Type.PersistenceType.EMBEDDABLE) {
+                    var children = compileAttributes((ManagedType<?>) elementType);
+                    yield children.isEmpty() ? null : SearchAttribute.nested(name, Nesting.ELEMENT_COLLECTION, children);
+                }
+                yield SearchAttribute.leaf(name, Nesting.ELEMENT_COLLECTION, elementType.getJavaType(), match);
+            }
+            case BASIC -> SearchAttribute.leaf(name, Nesting.BASIC, attribute.getJavaType(), match);
+            default -> null;
+        };
+    }
+
+    private static <A extends Annotation> A findAnnotation(Attribute<?, ?> attribute, Class<?> ownerType, Class<A> annotationType) {
+        if (attribute.getJavaMember() instanceof AnnotatedElement member && member.isAnnotationPresent(annotationType)) {
+            return member.getAnnotation(annotationType);
+        }
+        for (var field : JpaOmniSearchPredicateBuilder.getCachedFields(ownerType)) {
+            if (field.getName().equals(attribute.getName())) {
+                return field.getAnnotation(annotationType);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the value category of a basic java type.
+     *
+     * @param javaType the attribute java type
+     * @return the category, or {@code null} if values of the type are not searchable
+     */
+    static Category categoryOf(Class<?> javaType) {
+        var wrapperType = javaType.isPrimitive() ? ReflectionUtils.getWrapperType(javaType) : javaType;
+        if (String.class.isAssignableFrom(wrapperType)) return Category.STRING;
+        if (UUID.class.isAssignableFrom(wrapperType)) return Category.UUID;
+        if (Number.class.isAssignableFrom(wrapperType)) return Category.NUMERIC;
+        if (Boolean.class.isAssignableFrom(wrapperType)) return Category.BOOLEAN;
+        if (Year.class.isAssignableFrom(wrapperType)) return Category.YEAR;
+        if (LocalDate.class.isAssignableFrom(wrapperType)) return Category.DATE;
+        if (wrapperType.isEnum()) return Category.ENUM;
+        return null;
+    }
+
+    /**
+     * Value categories the search term can be bound to.
+     */
+    enum Category {
+        STRING, NUMERIC, UUID, ENUM, BOOLEAN, YEAR, DATE
+    }
+
+    /**
+     * How an attribute is reached from its owner.
+     */
+    enum Nesting {
+        BASIC, EMBEDDED, ELEMENT_COLLECTION
+    }
+
+    /**
+     * A searchable attribute of the plan.
+     *
+     * @param name     the attribute name
+     * @param nesting  how the attribute is reached from its owner
+     * @param category the value category, {@code null} for attributes with children
+     * @param javaType the java type of the value, boxed if primitive, {@code null} for attributes with children
+     * @param match    the match mode of a text attribute, {@code null} to use the mode of the request
+     * @param children the attributes of an embedded or embeddable element collection type
+     */
+    record SearchAttribute(
+            String name,
+            Nesting nesting,
+            Category category,
+            Class<?> javaType,
+            SearchMatch match,
+            List<SearchAttribute> children
+    ) {
+
+        static SearchAttribute nested(String name, Nesting nesting, List<SearchAttribute> children) {
+            return new SearchAttribute(name, nesting, null, null, null, children);
+        }
+
+        static SearchAttribute leaf(String name, Nesting nesting, Class<?> javaType, SearchMatch match) {
+            var category = categoryOf(javaType);
+            if (category == null) return null;
+
+            var wrapperType = javaType.isPrimitive() ? ReflectionUtils.getWrapperType(javaType) : javaType;
+            return new SearchAttribute(name, nesting, category, wrapperType, category == Category.STRING ? match : null, List.of());
+        }
+    }
+}
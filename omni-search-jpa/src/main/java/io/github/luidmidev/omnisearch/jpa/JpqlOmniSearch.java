@@ -0,0 +1,255 @@
+package io.github.luidmidev.omnisearch.jpa;
+
+import cz.jirutka.rsql.parser.ast.Node;
+import io.github.luidmidev.omnisearch.core.OmniSearch;
+import io.github.luidmidev.omnisearch.core.OmniSearchBaseOptions;
+import io.github.luidmidev.omnisearch.core.OmniSearchOptions;
+import io.github.luidmidev.omnisearch.core.metrics.SearchMetrics;
+import io.github.luidmidev.omnisearch.core.metrics.SearchOperation;
+import io.github.luidmidev.omnisearch.core.metrics.SearchPhase;
+import io.github.luidmidev.omnisearch.core.schemas.CountMode;
+import io.github.luidmidev.omnisearch.core.schemas.KeysetPage;
+import io.github.luidmidev.omnisearch.core.schemas.KeysetPagination;
+import io.github.luidmidev.omnisearch.core.schemas.Page;
+import io.github.luidmidev.omnisearch.core.schemas.Sort;
+import io.github.luidmidev.omnisearch.jpa.rsql.EntityManagerAdapter;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.BuilderTools;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.CollectionStrategy;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.DefaultPredicateBuilder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Search that renders the global search and the RSQL conditions straight into parameterized JPQL, instead of
+ * building criteria queries, and returns the same results as {@link JpaOmniSearch}.
+ * <p>
+ * The conditions are rendered with the semantics of the {@link DefaultPredicateBuilder default predicate builder}
+ * and the {@link CollectionStrategy#JOIN join} collection strategy: the in-list settings of the default predicate
+ * builder of the tools are applied, a custom predicate builder is not, and tools with the
+ * {@link CollectionStrategy#EXISTS exists} strategy are rejected on construction. Projections, keyset pages,
+ * approximate counts and fetch plans are read through the {@link #getCriteriaSearch() criteria search}, whose stream
+ * settings also apply to the streamed searches.
+ */
+@Slf4j
+public class JpqlOmniSearch implements OmniSearch {
+
+    private final EntityManager em;
+    private final BuilderTools builderTools;
+
+    @Getter
+    private final JpaOmniSearch criteriaSearch;
+
+    /**
+     * Cache of the rendered JPQL texts, keyed by the shape of the request, so that requests that only differ in their
+     * values only collect their values. {@code null} to disable.
+     */
+    @Getter
+    @Setter
+    private QueryTemplateCache templateCache;
+
+    public JpqlOmniSearch(EntityManager em) {
+        this(em, BuilderTools.DEFAULT);
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the tools use the {@link CollectionStrategy#EXISTS exists} collection
+     *                                       strategy
+     */
+    public JpqlOmniSearch(EntityManager em, BuilderTools builderTools) {
+        if (builderTools.getCollectionStrategy() == CollectionStrategy.EXISTS) {
+            throw new UnsupportedOperationException("The exists collection strategy is not supported by the JPQL search");
+        }
+        this.em = em;
+        this.builderTools = builderTools;
+        this.criteriaSearch = new JpaOmniSearch(em, builderTools);
+    }
+
+    /**
+     * Gets the metrics of the {@link #getCriteriaSearch() criteria search}, which also receive the operations of this
+     * search, with the rendering of the JPQL measured as the predicate build.
+     */
+    public SearchMetrics getMetrics() {
+        return criteriaSearch.getMetrics();
+    }
+
+    /**
+     * Sets the metrics of this search and of its {@link #getCriteriaSearch() criteria search}, {@code null} to
+     * disable.
+     */
+    public void setMetrics(SearchMetrics metrics) {
+        criteriaSearch.setMetrics(metrics);
+    }
+
+    @Override
+    public <E> List<E> search(Class<E> entityClass, OmniSearchOptions options) {
+        return criteriaSearch.observe(entityClass, SearchOperation.SEARCH, observation -> searchEntities(entityClass, options, observation));
+    }
+
+    private <E> List<E> searchEntities(Class<E> entityClass, OmniSearchOptions options, SearchObservation observation) {
+        var entities = JpaOmniSearch.list(createSearchQuery(entityClass, options, observation), observation);
+        return criteriaSearch.loadFetchPlan(entityClass, options, entities, true, observation);
+    }
+
+    @Override
+    public <E> Stream<E> stream(Class<E> entityClass, OmniSearchOptions options) {
+        return criteriaSearch.observeStream(entityClass, observation -> createSearchQuery(entityClass, options, observation));
+    }
+
+    /**
+     * Creates the query that {@link #search(Class, OmniSearchOptions)} reads the entities with, sorted, paginated and
+     * bound to the values of the options, without executing it. The collections of the fetch plan are not loaded by
+     * this query.
+     */
+    public <E> TypedQuery<E> createSearchQuery(Class<E> entityClass, OmniSearchOptions options) {
+        return createSearchQuery(entityClass, options, null);
+    }
+
+    private <E> TypedQuery<E> createSearchQuery(Class<E> entityClass, OmniSearchOptions options, SearchObservation observation) {
+        var query = JpaOmniSearch.paginate(createQuery(entityClass, entityClass, options, options.getSort(), Selection.ENTITY, observation), options.getPagination());
+        var graph = criteriaSearch.singularFetchGraph(entityClass, options.getFetch());
+        if (graph != null) {
+            query.setHint(JpaOmniSearch.FETCH_GRAPH_HINT, graph);
+        }
+        return query;
+    }
+
+    @Override
+    public <E, R> List<R> search(Class<E> entityClass, Class<R> projection, OmniSearchOptions options) {
+        return criteriaSearch.search(entityClass, projection, options);
+    }
+
+    @Override
+    public <E> List<Map<String, Object>> search(Class<E> entityClass, List<String> properties, OmniSearchOptions options) {
+        return criteriaSearch.search(entityClass, properties, options);
+    }
+
+    @Override
+    public <E> Page<E> searchPage(Class<E> entityClass, OmniSearchOptions options) {
+        return criteriaSearch.observe(entityClass, SearchOperation.PAGE, observation -> searchPageWithTotal(entityClass, options, observation));
+    }
+
+    private <E> Page<E> searchPageWithTotal(Class<E> entityClass, OmniSearchOptions options, SearchObservation observation) {
+        var pagination = options.getPagination();
+        var content = searchEntities(entityClass, options, observation);
+        var total = JpaOmniSearch.totalFromPage(pagination, content.size());
+        if (total < 0) {
+            total = countEntities(entityClass, options, observation);
+        }
+        return new Page<>(content, total, pagination);
+    }
+
+    @Override
+    public <E> KeysetPage<E> searchKeyset(Class<E> entityClass, OmniSearchOptions options, KeysetPagination pagination) {
+        return criteriaSearch.searchKeyset(entityClass, options, pagination);
+    }
+
+    @Override
+    public <E> long count(Class<E> entityClass, OmniSearchBaseOptions options) {
+        return criteriaSearch.observe(entityClass, SearchOperation.COUNT, observation -> countEntities(entityClass, options, observation));
+    }
+
+    private <E> long countEntities(Class<E> entityClass, OmniSearchBaseOptions options, SearchObservation observation) {
+        var countMode = options.getCountMode();
+        return switch (countMode.getType()) {
+            case EXACT -> JpaOmniSearch.single(createQuery(Long.class, entityClass, options, Sort.unsorted(), Selection.COUNT, observation), observation);
+            case BOUNDED -> boundedCount(entityClass, options, countMode.getLimit(), observation);
+            case APPROXIMATE -> criteriaSearch.approximateCount(entityClass, options, observation);
+        };
+    }
+
+    @Override
+    public void detach(Object entity) {
+        criteriaSearch.detach(entity);
+    }
+
+    /**
+     * Counts up to {@code limit} matches by reading at most {@code limit} ids, see {@link CountMode#bounded}.
+     */
+    private <E> long boundedCount(Class<E> entityClass, OmniSearchBaseOptions options, long limit, SearchObservation observation) {
+        return JpaOmniSearch.list(createQuery(Object.class, entityClass, options, Sort.unsorted(), Selection.ID, observation)
+                .setMaxResults((int) Math.min(limit, Integer.MAX_VALUE)), observation)
+                .size();
+    }
+
+    /**
+     * Creates the query of the options, bound to the values of the options. The rendering is measured as
+     * {@link SearchPhase#PREDICATE_BUILD} of the observation if present.
+     */
+    private <R> TypedQuery<R> createQuery(Class<R> resultType, Class<?> entityClass, OmniSearchBaseOptions options, Sort sort, Selection selection, SearchObservation observation) {
+        var rendered = observation == null
+                ? render(entityClass, options, sort, selection, builderTools, null)
+                : observation.time(SearchPhase.PREDICATE_BUILD, () -> render(entityClass, options, sort, selection, observation.observe(builderTools), observation));
+
+        log.debug("Executing JPQL search: {}", rendered.jpql());
+        var query = em.createQuery(rendered.jpql(), resultType);
+        var values = rendered.values();
+        for (int i = 0; i < values.size(); i++) {
+            query.setParameter(i + 1, values.get(i));
+        }
+        return query;
+    }
+
+    /**
+     * Renders the query of the options from the {@link #templateCache cached} text of the same shape, only collecting
+     * its values. On a miss the text is rendered and cached.
+     *
+     * @param tools the tools the conditions are optimized and rendered with, the builder tools of this search
+     *              observed by the observation if present
+     */
+    private RenderedQuery render(Class<?> entityClass, OmniSearchBaseOptions options, Sort sort, Selection selection, BuilderTools tools, SearchObservation observation) {
+        Optional<Node> conditions;
+        if (options.getConditions() == null) {
+            conditions = Optional.empty();
+        } else if (observation == null) {
+            conditions = optimize(entityClass, options, tools);
+        } else {
+            conditions = observation.time(SearchPhase.CONDITIONS, () -> optimize(entityClass, options, tools));
+        }
+
+        TextKey key = null;
+        String jpql = null;
+        if (templateCache != null) {
+            key = new TextKey(builderTools, selection, entityClass, QueryShape.of(em.getMetamodel(), entityClass, options, conditions, sort, builderTools));
+            jpql = templateCache.getText(key);
+        }
+
+        var renderer = new JpqlRenderer(em.getMetamodel(), entityClass, tools, jpql == null);
+        renderer.where(options, conditions, observation);
+        if (observation != null) {
+            observation.addPredicates(renderer.getPredicateCount(), renderer.getJoinCount());
+        }
+        if (jpql == null) {
+            jpql = renderer.toJpql(switch (selection) {
+                case ENTITY -> JpqlRenderer.ROOT_ALIAS;
+                case COUNT -> renderer.hasCollectionJoins() ? "count(distinct " + JpqlRenderer.ROOT_ALIAS + ")" : "count(" + JpqlRenderer.ROOT_ALIAS + ")";
+                case ID -> (renderer.hasCollectionJoins() ? "distinct " : "") + JpqlRenderer.ROOT_ALIAS + "." + criteriaSearch.idName(entityClass);
+            }, sort);
+            if (key != null) {
+                templateCache.put(key, jpql);
+            }
+        }
+        return new RenderedQuery(jpql, renderer.getValues());
+    }
+
+    private Optional<Node> optimize(Class<?> entityClass, OmniSearchBaseOptions options, BuilderTools tools) {
+        return tools.getNodeOptimizer().optimize(options.getConditions(), entityClass, new EntityManagerAdapter(em), tools);
+    }
+
+    private enum Selection {
+        ENTITY, COUNT, ID
+    }
+
+    private record TextKey(BuilderTools builderTools, Selection selection, Class<?> entityClass, String shape) {
+    }
+
+    private record RenderedQuery(String jpql, List<Object> values) {
+    }
+}
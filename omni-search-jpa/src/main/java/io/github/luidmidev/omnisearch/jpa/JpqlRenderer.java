@@ -0,0 +1,560 @@
+package io.github.luidmidev.omnisearch.jpa;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.LogicalOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+import io.github.luidmidev.omnisearch.core.OmniSearchBaseOptions;
+import io.github.luidmidev.omnisearch.core.metrics.SearchPhase;
+import io.github.luidmidev.omnisearch.core.schemas.CaseStrategy;
+import io.github.luidmidev.omnisearch.core.schemas.MatchMode;
+import io.github.luidmidev.omnisearch.core.schemas.Sort;
+import io.github.luidmidev.omnisearch.jpa.rsql.ComparisonOperatorProxy;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.BuilderTools;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.DefaultPredicateBuilder;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.Type;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Renders the global search and the RSQL conditions of a request into a JPQL query with positional parameters,
+ * following the semantics of {@link JpaOmniSearchPredicateBuilder} and the {@link DefaultPredicateBuilder default
+ * predicate builder} with the join collection strategy.
+ * <p>
+ * Every property path is resolved through the metamodel, unknown properties are rejected before any text is
+ * rendered. A renderer created without text only collects the values of the parameters, in the order the text of a
+ * request of the same shape binds them.
+ */
+@Slf4j
+final class JpqlRenderer {
+
+    static final String ROOT_ALIAS = "e";
+
+    /**
+     * Escape clause of the like patterns of the global search, see {@link SearchTerm#likePattern}.
+     */
+    private static final String LIKE_ESCAPE = " escape '" + SearchTerm.LIKE_ESCAPE + "'";
+
+    /**
+     * Settings used when the predicate builder of the tools is not a {@link DefaultPredicateBuilder}.
+     */
+    private static final DefaultPredicateBuilder DEFAULT_PREDICATES = new DefaultPredicateBuilder();
+
+    private final Metamodel metamodel;
+    private final Class<?> entityClass;
+    private final BuilderTools tools;
+    private final DefaultPredicateBuilder predicates;
+    private final StringBuilder where;
+    private final List<Object> values = new ArrayList<>();
+    private final Map<String, JoinClause> joins = new LinkedHashMap<>();
+    private boolean collectionJoins;
+    private int predicateCount;
+
+    /**
+     * @param text whether the text of the query is rendered, otherwise only the values are collected
+     */
+    JpqlRenderer(Metamodel metamodel, Class<?> entityClass, BuilderTools tools, boolean text) {
+        this.metamodel = metamodel;
+        this.entityClass = entityClass;
+        this.tools = tools;
+        this.predicates = tools.getPredicateBuilder() instanceof DefaultPredicateBuilder builder ? builder : DEFAULT_PREDICATES;
+        this.where = text ? new StringBuilder() : null;
+    }
+
+    /**
+     * Renders the where clause of the options, the search terms first and then the conditions.
+     *
+     * @param conditions the conditions of the options, as optimized by the node optimizer of the tools; empty if
+     *                   there are none or they can never match
+     * @param observation  the observation the rendering of the conditions is timed in, {@code null} if not observed
+     */
+    void where(OmniSearchBaseOptions options, Optional<Node> conditions, SearchObservation observation) {
+        var search = options.getSearch();
+        if (search != null && !search.isBlank()) {
+            var terms = SearchTerm.tokenize(search, options.getSearchMode(), tools);
+            for (var term : terms) {
+                and();
+                renderTerm(term, options);
+            }
+        }
+
+        if (options.getConditions() != null) {
+            if (conditions.isEmpty()) {
+                // the conditions can never match, the search is dropped like in the criteria path
+                values.clear();
+                if (where != null) where.setLength(0);
+                predicateCount = 1;
+                append("1=0");
+                return;
+            }
+            and();
+            if (observation == null) {
+                renderNode(conditions.get());
+            } else {
+                observation.time(SearchPhase.CONDITIONS, () -> {
+                    renderNode(conditions.get());
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * Gets the values of the parameters, the value of {@code ?n} at index {@code n - 1}.
+     */
+    List<Object> getValues() {
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Gets the number of leaf predicates rendered, the alternatives of the search terms and the comparisons.
+     */
+    int getPredicateCount() {
+        return predicateCount;
+    }
+
+    /**
+     * Gets the number of joins rendered so far.
+     */
+    int getJoinCount() {
+        return joins.size();
+    }
+
+    /**
+     * Verifies if any collection-valued association or element collection was joined.
+     */
+    boolean hasCollectionJoins() {
+        return collectionJoins;
+    }
+
+    /**
+     * Completes the query with the given selection and sort, the associations of the sort not joined yet are
+     * left joined.
+     *
+     * @param selection the select clause, without the {@code select} keyword
+     */
+    String toJpql(String selection, Sort sort) {
+        var orderBy = new StringBuilder();
+        for (var order : sort.getOrders()) {
+            orderBy.append(orderBy.isEmpty() ? " order by " : ", ")
+                    .append(orderPath(order.getProperty()))
+                    .append(order.isAscending() ? " asc" : " desc");
+        }
+
+        var jpql = new StringBuilder(32 + 24 * joins.size() + where.length() + orderBy.length())
+                .append("select ").append(selection)
+                .append(" from ").append(metamodel.entity(entityClass).getName()).append(' ').append(ROOT_ALIAS);
+        joins.forEach((path, join) -> jpql
+                .append(join.inner ? " join " : " left join ")
+                .append(path).append(' ').append(join.alias));
+        if (!where.isEmpty()) {
+            jpql.append(" where ").append(where);
+        }
+        return jpql.append(orderBy).toString();
+    }
+
+    private void renderTerm(SearchTerm term, OmniSearchBaseOptions options) {
+        var alternatives = new int[1];
+        append('(');
+        renderAttributes(term, ROOT_ALIAS, true, JpaSearchPlan.of(metamodel, entityClass).attributes(), alternatives);
+
+        var managedType = metamodel.managedType(entityClass);
+        for (var joinColumn : options.getJoins()) {
+            var attribute = managedType.getAttribute(joinColumn);
+            var alias = join(ROOT_ALIAS, joinColumn, attribute, false);
+            renderAttributes(term, alias, true, JpaSearchPlan.of(metamodel, elementType(attribute)).attributes(), alternatives);
+        }
+
+        if (alternatives[0] == 0) {
+            predicateCount++;
+            append("1=0");
+        }
+        append(')');
+    }
+
+    /**
+     * Renders the alternatives of the term on the attributes of a path, separated by {@code or}.
+     *
+     * @param isFrom       whether the path is an alias that can be joined from
+     * @param alternatives the number of alternatives rendered so far
+     */
+    private void renderAttributes(SearchTerm term, String path, boolean isFrom, List<JpaSearchPlan.SearchAttribute> attributes, int[] alternatives) {
+        for (var attribute : attributes) {
+            var propertyPath = path + "." + attribute.name();
+            switch (attribute.nesting()) {
+                case EMBEDDED -> renderAttributes(term, propertyPath, false, attribute.children(), alternatives);
+                case ELEMENT_COLLECTION -> {
+                    if (!isFrom) continue;
+                    var alias = join(path, attribute.name(), null, false);
+                    if (attribute.children().isEmpty()) {
+                        renderBasic(term, alias, attribute, alternatives);
+                    } else {
+                        renderAttributes(term, alias, true, attribute.children(), alternatives);
+                    }
+                }
+                case BASIC -> renderBasic(term, propertyPath, attribute, alternatives);
+            }
+        }
+    }
+
+    private void renderBasic(SearchTerm term, String path, JpaSearchPlan.SearchAttribute attribute, int[] alternatives) {
+        var value = JpaOmniSearchPredicateBuilder.searchValue(term, attribute);
+        if (value == null) {
+            return;
+        }
+        if (alternatives[0]++ > 0) {
+            append(" or ");
+        }
+        predicateCount++;
+
+        switch (attribute.category()) {
+            case STRING -> {
+                var match = attribute.match();
+                var matchMode = match != null ? match.value() : term.matchMode();
+                var lowerCase = match == null || match.caseStrategy() == CaseStrategy.LOWER;
+
+                append(lowerCase ? "lower(" + path + ")" : path);
+                if (matchMode == MatchMode.EXACT) {
+                    append(" = ");
+                    parameter(lowerCase ? term.value().toLowerCase() : term.value());
+                } else {
+                    append(" like ");
+                    parameter(term.likePattern(matchMode, lowerCase));
+                    append(LIKE_ESCAPE);
+                }
+            }
+            case ENUM -> {
+                append(path).append(" in ");
+                parameter(value);
+            }
+            default -> {
+                append(path).append(" = ");
+                parameter(value);
+            }
+        }
+    }
+
+    private void renderNode(Node node) {
+        if (node instanceof LogicalNode logical) {
+            var separator = logical.getOperator() == LogicalOperator.AND ? " and " : " or ";
+            append('(');
+            var children = logical.getChildren();
+            for (int i = 0; i < children.size(); i++) {
+                if (i > 0) append(separator);
+                renderNode(children.get(i));
+            }
+            append(')');
+            return;
+        }
+        if (node instanceof ComparisonNode comparison) {
+            renderComparison(comparison);
+            return;
+        }
+        throw new IllegalArgumentException("Unknown expression type: " + node.getClass());
+    }
+
+    private void renderComparison(ComparisonNode comparison) {
+        var operator = comparison.getOperator();
+        var proxy = ComparisonOperatorProxy.asEnum(operator);
+        if (proxy == null) {
+            throw new IllegalArgumentException("Unknown operator: " + operator);
+        }
+
+        predicateCount++;
+        var target = resolve(comparison.getSelector(), ROOT_ALIAS, metamodel.managedType(entityClass));
+        var arguments = tools.getArgumentParser().parse(comparison.getArguments(), target.javaType());
+        var path = target.expression();
+        var argument = arguments.getFirst();
+
+        switch (proxy) {
+            case EQUAL -> {
+                if (argument instanceof String casted && predicates.isLikeCompared(casted)) {
+                    renderWildcardLike(target, casted);
+                } else if (argument == null) {
+                    append(path).append(" is null");
+                } else {
+                    append(path).append(" = ");
+                    parameter(argument);
+                }
+            }
+            case NOT_EQUAL -> {
+                if (argument instanceof String casted && predicates.isLikeCompared(casted)) {
+                    append("not (");
+                    renderWildcardLike(target, casted);
+                    append(')');
+                } else if (argument == null) {
+                    append(path).append(" is not null");
+                } else {
+                    append(path).append(" <> ");
+                    parameter(argument);
+                }
+            }
+            case GREATER_THAN -> {
+                var nextDay = nextDayOfDateBound(comparison, target);
+                if (nextDay != null) {
+                    renderComparable(path, " >= ", operator, nextDay);
+                } else {
+                    renderComparable(path, " > ", operator, argument);
+                }
+            }
+            case GREATER_THAN_OR_EQUAL -> renderComparable(path, " >= ", operator, argument);
+            case LESS_THAN -> renderComparable(path, " < ", operator, argument);
+            case LESS_THAN_OR_EQUAL -> {
+                var nextDay = nextDayOfDateBound(comparison, target);
+                if (nextDay != null) {
+                    renderComparable(path, " < ", operator, nextDay);
+                } else {
+                    renderComparable(path, " <= ", operator, argument);
+                }
+            }
+            case IN -> renderIn(path, arguments);
+            case NOT_IN -> {
+                append("not (");
+                renderIn(path, arguments);
+                append(')');
+            }
+            case ILIKE -> renderLike(path, predicates.likeArgument(operator, argument));
+            case NOT_ILIKE -> {
+                append("not (");
+                renderLike(path, predicates.likeArgument(operator, argument));
+                append(')');
+            }
+            case BETWEEN -> {
+                if (arguments.size() != 2) {
+                    throw new IllegalArgumentException("Operator " + operator + " requires exactly two arguments, got " + arguments.size());
+                }
+                requireComparable(operator, arguments.get(0));
+                var nextDay = DefaultPredicateBuilder.nextDayOfDateBound(comparison.getArguments().get(1), target.javaType(), tools.getArgumentParser());
+                if (nextDay != null) {
+                    requireComparable(operator, nextDay);
+                    append('(').append(path).append(" >= ");
+                    parameter(arguments.get(0));
+                    append(" and ").append(path).append(" < ");
+                    parameter(nextDay);
+                    append(')');
+                    return;
+                }
+                requireComparable(operator, arguments.get(1));
+                append(path).append(" between ");
+                parameter(arguments.get(0));
+                append(" and ");
+                parameter(arguments.get(1));
+            }
+        }
+    }
+
+    /**
+     * Gets the start of the day after the date argument of a {@code >} or {@code <=} on a date-time property, see
+     * {@link DefaultPredicateBuilder#nextDayOfDateBound}.
+     */
+    private Object nextDayOfDateBound(ComparisonNode comparison, Target target) {
+        var arguments = comparison.getArguments();
+        return arguments.size() == 1
+                ? DefaultPredicateBuilder.nextDayOfDateBound(arguments.getFirst(), target.javaType(), tools.getArgumentParser())
+                : null;
+    }
+
+    private void renderComparable(String path, String comparison, ComparisonOperator operator, Object argument) {
+        requireComparable(operator, argument);
+        append(path).append(comparison);
+        parameter(argument);
+    }
+
+    private void requireComparable(ComparisonOperator operator, Object argument) {
+        if (!(argument instanceof Comparable<?>)) {
+            throw new IllegalArgumentException(predicates.buildNotComparableMessage(operator, argument));
+        }
+    }
+
+    /**
+     * Renders an in list with the in-list settings of the predicate builder: as one array argument of the array
+     * function, as a padded list, or as padded chunks joined with OR.
+     */
+    private void renderIn(String path, List<?> arguments) {
+        var arrayFunction = predicates.getInListArrayFunction();
+        if (arrayFunction != null && !arguments.isEmpty()) {
+            append("function('").append(arrayFunction).append("', ");
+            parameter(DefaultPredicateBuilder.toArray(arguments));
+            append(", ").append(path).append(") = true");
+            return;
+        }
+        var chunkSize = predicates.getInListChunkSize();
+        if (arguments.size() <= chunkSize) {
+            append(path).append(" in ");
+            parameter(predicates.padInList(arguments));
+            return;
+        }
+        append('(');
+        for (int from = 0; from < arguments.size(); from += chunkSize) {
+            if (from > 0) append(" or ");
+            append(path).append(" in ");
+            parameter(predicates.padInList(arguments.subList(from, Math.min(from + chunkSize, arguments.size()))));
+        }
+        append(')');
+    }
+
+    /**
+     * Renders the like of a wildcard equality, as is on attributes with the collation case strategy and
+     * case-insensitive on the others.
+     */
+    private void renderWildcardLike(Target target, String argument) {
+        if (!DefaultPredicateBuilder.hasCollationCase(target.attribute())) {
+            renderLike(target.expression(), argument);
+            return;
+        }
+        append(target.expression()).append(" like ");
+        parameter(argument.replace(DefaultPredicateBuilder.LIKE_WILDCARD, '%'));
+    }
+
+    private void renderLike(String path, String argument) {
+        append("lower(").append(path).append(") like ");
+        parameter(argument.replace(DefaultPredicateBuilder.LIKE_WILDCARD, '%').toLowerCase());
+    }
+
+    /**
+     * Resolves a dot-separated selector of the conditions, translated by the properties mapper. Associations and
+     * collections are inner joined, once per path.
+     *
+     * @throws IllegalArgumentException if a property does not exist
+     */
+    private Target resolve(String selector, String from, ManagedType<?> managedType) {
+        var expression = from;
+        Attribute<?, ?> attribute = null;
+        var javaType = managedType.getJavaType();
+
+        for (var property : selector.split("\\.")) {
+            var mappedProperty = tools.getPropertiesMapper().translate(property, managedType.getJavaType());
+            if (!mappedProperty.equals(property)) {
+                var mapped = resolve(mappedProperty, expression, managedType);
+                expression = mapped.expression();
+                attribute = mapped.attribute();
+                javaType = mapped.javaType();
+                continue;
+            }
+            if (!hasPropertyName(property, managedType)) {
+                throw new IllegalArgumentException("Unknown property: " + property + " From<?,?> entity " + managedType.getJavaType().getName());
+            }
+
+            attribute = managedType.getAttribute(property);
+            javaType = elementType(attribute);
+            if (attribute.isAssociation() || attribute.isCollection()) {
+                expression = join(expression, property, attribute, true);
+            } else {
+                expression = expression + "." + property;
+            }
+            if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC && !isBasicElement(attribute)) {
+                managedType = metamodel.managedType(javaType);
+            }
+        }
+        return new Target(expression, attribute, javaType);
+    }
+
+    /**
+     * Resolves a sort property, the associations are left joined unless already joined by the predicates.
+     */
+    private String orderPath(String property) {
+        var properties = property.split("\\.");
+        ManagedType<?> managedType = metamodel.managedType(entityClass);
+        var expression = ROOT_ALIAS;
+        var isFrom = true;
+
+        for (int i = 0; i < properties.length; i++) {
+            var attribute = managedType.getAttribute(properties[i]);
+            var isLast = i == properties.length - 1;
+            if (!isLast && isFrom && (attribute.isAssociation() || attribute.isCollection())) {
+                expression = join(expression, properties[i], attribute, false);
+            } else {
+                expression = expression + "." + properties[i];
+                isFrom = false;
+            }
+            if (!isLast) {
+                managedType = metamodel.managedType(elementType(attribute));
+            }
+        }
+        return expression;
+    }
+
+    /**
+     * Gets the alias of the join of the attribute from the given path, joining it on first use. Each path is joined
+     * once whatever the join type its users ask for: a left join becomes an inner join as soon as a condition compares
+     * the association, the inner join already restricting the rows to the entities the condition can match.
+     *
+     * @param attribute the joined attribute, {@code null} if it is a collection
+     * @param inner     whether the association is inner joined, otherwise left joined
+     */
+    private String join(String from, String property, Attribute<?, ?> attribute, boolean inner) {
+        var path = from + '.' + property;
+        var join = joins.get(path);
+        if (join != null) {
+            join.inner |= inner;
+            return join.alias;
+        }
+
+        join = new JoinClause("j" + (joins.size() + 1), inner);
+        joins.put(path, join);
+        collectionJoins |= attribute == null || attribute.isCollection();
+        log.trace("Join {} as {}", path, join.alias);
+        return join.alias;
+    }
+
+    private void and() {
+        if (where != null && !where.isEmpty()) {
+            where.append(" and ");
+        }
+    }
+
+    private JpqlRenderer append(Object part) {
+        if (where != null) {
+            where.append(part);
+        }
+        return this;
+    }
+
+    /**
+     * Binds a value to the next positional parameter.
+     */
+    private void parameter(Object value) {
+        values.add(value);
+        append('?').append(values.size());
+    }
+
+    private static boolean isBasicElement(Attribute<?, ?> attribute) {
+        return attribute instanceof PluralAttribute<?, ?, ?> plural && plural.getElementType().getPersistenceType() == Type.PersistenceType.BASIC;
+    }
+
+    private static Class<?> elementType(Attribute<?, ?> attribute) {
+        return attribute instanceof PluralAttribute<?, ?, ?> plural ? plural.getElementType().getJavaType() : attribute.getJavaType();
+    }
+
+    private static <T> boolean hasPropertyName(String property, ManagedType<T> managedType) {
+        for (var attribute : managedType.getAttributes()) {
+            if (attribute.getName().equals(property)) return true;
+        }
+        return false;
+    }
+
+    private record Target(String expression, Attribute<?, ?> attribute, Class<?> javaType) {
+    }
+
+    private static final class JoinClause {
+
+        private final String alias;
+        private boolean inner;
+
+        private JoinClause(String alias, boolean inner) {
+            this.alias = alias;
+            this.inner = inner;
+        }
+    }
+}
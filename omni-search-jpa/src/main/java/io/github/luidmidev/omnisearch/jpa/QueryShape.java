@@ -0,0 +1,170 @@
+package io.github.luidmidev.omnisearch.jpa;
+
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.Node;
+import cz.jirutka.rsql.parser.ast.RSQLOperators;
+import io.github.luidmidev.omnisearch.core.OmniSearchBaseOptions;
+import io.github.luidmidev.omnisearch.core.rsql.OmniSearchOperators;
+import io.github.luidmidev.omnisearch.core.schemas.Sort;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.ArgumentParser;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.BuilderTools;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.DefaultPredicateBuilder;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Describes the shape of the query of a request: everything that decides the structure of its criteria query and
+ * none of the values bound to its parameters. Requests of the same shape build the same query, with the parameters
+ * created in the same order.
+ */
+final class QueryShape {
+
+    private QueryShape() {
+    }
+
+    /**
+     * Describes the shape of the query of the options.
+     *
+     * @param metamodel   metamodel of the persistence unit
+     * @param entityClass the searched entity
+     * @param options     the options of the request
+     * @param conditions  the conditions the query was built from, as optimized for it; empty if there are none or
+     *                    they can never match
+     * @param sort        the sort applied to the query
+     * @param tools       the builder tools the query is built with
+     * @return the shape, equal for requests that only differ in their values
+     */
+    static String of(Metamodel metamodel, Class<?> entityClass, OmniSearchBaseOptions options, Optional<Node> conditions, Sort sort, BuilderTools tools) {
+        var shape = new StringBuilder();
+        appendSearch(shape, metamodel, entityClass, options, tools);
+
+        shape.append('|');
+        if (options.getConditions() != null) {
+            // plain string arguments of == and != are compared with = instead of a like
+            if (tools.getPredicateBuilder() instanceof DefaultPredicateBuilder predicates && predicates.isExactStringEquality()) {
+                shape.append('=');
+            }
+            if (conditions.isPresent()) {
+                appendNode(shape, conditions.get(), tools);
+            } else {
+                shape.append('!');
+            }
+        }
+
+        shape.append('|');
+        for (var order : sort.getOrders()) {
+            shape.append(order.getProperty()).append(order.isAscending() ? '+' : '-');
+        }
+        return shape.toString();
+    }
+
+    /**
+     * Appends the joins and, for every term of the search, which attributes it is compared with.
+     */
+    private static void appendSearch(StringBuilder shape, Metamodel metamodel, Class<?> entityClass, OmniSearchBaseOptions options, BuilderTools tools) {
+        var search = options.getSearch();
+        if (search == null || search.isBlank()) {
+            return;
+        }
+
+        var plans = new ArrayList<List<JpaSearchPlan.SearchAttribute>>();
+        plans.add(JpaSearchPlan.of(metamodel, entityClass).attributes());
+        var managedType = metamodel.managedType(entityClass);
+        for (var join : options.getJoins()) {
+            shape.append(join).append(',');
+            plans.add(JpaSearchPlan.of(metamodel, elementType(managedType.getAttribute(join))).attributes());
+        }
+
+        var terms = SearchTerm.tokenize(search, options.getSearchMode(), tools);
+        for (var term : terms) {
+            shape.append(';').append(term.matchMode().name()).append(':');
+            for (var attributes : plans) {
+                appendAttributes(shape, term, attributes);
+            }
+        }
+    }
+
+    private static void appendAttributes(StringBuilder shape, SearchTerm term, List<JpaSearchPlan.SearchAttribute> attributes) {
+        for (var attribute : attributes) {
+            if (!attribute.children().isEmpty()) {
+                appendAttributes(shape, term, attribute.children());
+                continue;
+            }
+            var value = JpaOmniSearchPredicateBuilder.searchValue(term, attribute);
+            if (value instanceof Collection<?> candidates) {
+                shape.append(candidates.size()).append('.');
+            } else {
+                shape.append(value == null ? '0' : '1');
+            }
+        }
+    }
+
+    private static boolean isDate(String argument, ArgumentParser parser) {
+        try {
+            parser.parse(argument, LocalDate.class);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static boolean isInList(ComparisonNode comparison) {
+        var operator = comparison.getOperator();
+        return RSQLOperators.IN.equals(operator) || RSQLOperators.NOT_IN.equals(operator);
+    }
+
+    private static Class<?> elementType(Attribute<?, ?> attribute) {
+        return attribute instanceof PluralAttribute<?, ?, ?> plural ? plural.getElementType().getJavaType() : attribute.getJavaType();
+    }
+
+    /**
+     * Appends the selectors and operators of the node, and for every argument whether it is blank, has wildcards or
+     * is a plain value, as these select different predicates. The upper bound of a {@code =between=} and the argument
+     * of a {@code >} or {@code <=} are also told apart when they are a date, which ranges over its whole day.
+     * <p>
+     * The in lists of the {@link DefaultPredicateBuilder default predicate builder} are described by their
+     * {@link DefaultPredicateBuilder#inListLayout layout} instead, so that lists padded to the same size share their
+     * query, and a change of the in list settings changes the shape.
+     */
+    private static void appendNode(StringBuilder shape, Node node, BuilderTools tools) {
+        if (node instanceof LogicalNode logical) {
+            shape.append(logical.getOperator()).append('(');
+            for (var child : logical.getChildren()) {
+                appendNode(shape, child, tools);
+                shape.append(',');
+            }
+            shape.append(')');
+        } else if (node instanceof ComparisonNode comparison) {
+            shape.append(comparison.getSelector()).append(comparison.getOperator().getSymbol()).append('[');
+            var arguments = comparison.getArguments();
+            var parser = tools.getArgumentParser();
+            if (isInList(comparison) && tools.getPredicateBuilder() instanceof DefaultPredicateBuilder predicates) {
+                shape.append(predicates.inListLayout(arguments.size())).append(']');
+                return;
+            }
+            for (var argument : arguments) {
+                if (argument == null || argument.isBlank()) {
+                    shape.append('n');
+                } else {
+                    shape.append(argument.indexOf(DefaultPredicateBuilder.LIKE_WILDCARD) >= 0 ? 'w' : 'v');
+                }
+            }
+            var operator = comparison.getOperator();
+            if (OmniSearchOperators.BETWEEN.equals(operator) && arguments.size() == 2 && isDate(arguments.get(1), parser)
+                    || DefaultPredicateBuilder.isDayBoundOperator(operator) && arguments.size() == 1 && isDate(arguments.getFirst(), parser)) {
+                shape.append('d');
+            }
+            shape.append(']');
+        } else {
+            shape.append(node);
+        }
+    }
+}
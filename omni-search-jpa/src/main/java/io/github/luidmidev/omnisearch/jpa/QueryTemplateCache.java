@@ -0,0 +1,118 @@
+package io.github.luidmidev.omnisearch.jpa;
+
+import io.github.luidmidev.omnisearch.core.schemas.CacheStats;
+import io.github.luidmidev.omnisearch.jpa.rsql.QueryParameters;
+import jakarta.persistence.criteria.CriteriaQuery;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe bounded LRU cache of parameterized criteria queries and rendered JPQL texts, keyed by the
+ * {@link QueryShape shape} of the request they were built for.
+ * <p>
+ * A request whose shape is cached executes the cached query with its own values bound to the parameters, so the
+ * provider can reuse the translation of the query and the database the prepared statement.
+ * <p>
+ * Criteria templates are keyed by the criteria builder they were built with, so they are only reused within the
+ * entity manager factory that created them. The cached queries are never modified once cached, but every entity
+ * manager of the factory creates its typed queries from the same criteria query, concurrently; sharing a cache
+ * across entity managers and threads requires a provider that does not mutate a criteria query while creating a
+ * query from it. Hibernate 6 meets this, whether or not {@code hibernate.criteria.copy_tree} is enabled.
+ */
+public final class QueryTemplateCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private final Map<Object, Object> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public QueryTemplateCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public QueryTemplateCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be greater than zero");
+        }
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the template of the key, if its parameters accept the given values.
+     *
+     * @return the template, or {@code null} on a miss
+     */
+    @SuppressWarnings("unchecked")
+    <Q> Template<Q> get(Object key, QueryParameters parameters) {
+        if (!(lookup(key) instanceof Template<?> template) || !template.parameters().accepts(parameters.getValues())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return (Template<Q>) template;
+    }
+
+    /**
+     * Gets the JPQL text of the key.
+     *
+     * @return the text, or {@code null} on a miss
+     */
+    String getText(Object key) {
+        if (!(lookup(key) instanceof String text)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return text;
+    }
+
+    void put(Object key, Template<?> template) {
+        store(key, template);
+    }
+
+    void put(Object key, String text) {
+        store(key, text);
+    }
+
+    private Object lookup(Object key) {
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    private void store(Object key, Object value) {
+        synchronized (cache) {
+            cache.put(key, value);
+        }
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), size);
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * A built criteria query together with the parameters of its predicates.
+     */
+    record Template<Q>(CriteriaQuery<Q> query, QueryParameters parameters) {
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.luidmidev.omnisearch.jpa;
+
+import io.github.luidmidev.omnisearch.core.metrics.SearchMetrics;
+import io.github.luidmidev.omnisearch.core.metrics.SearchOperation;
+import io.github.luidmidev.omnisearch.core.metrics.SearchPhase;
+import io.github.luidmidev.omnisearch.jpa.rsql.ArgumentFormatException;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.ArgumentParser;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.BuilderTools;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.CollectionStrategy;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.NodeOptimizer;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.PredicateBuilder;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.PropertiesMapper;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The measurements of a single search operation, accumulated over its phases and its queries and reported to the
+ * {@link SearchMetrics} once it completes. Not thread-safe, an operation runs on a single thread.
+ */
+final class SearchObservation {
+
+    private final long[] nanos = new long[SearchPhase.values().length];
+    private final boolean[] observed = new boolean[SearchPhase.values().length];
+    private int predicates;
+    private int joins;
+    private boolean built;
+    private long rows;
+
+    /**
+     * Runs the action, adding its elapsed time to the phase.
+     */
+    <T> T time(SearchPhase phase, Supplier<T> action) {
+        var start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            add(phase, System.nanoTime() - start);
+        }
+    }
+
+    void add(SearchPhase phase, long elapsed) {
+        nanos[phase.ordinal()] += elapsed;
+        observed[phase.ordinal()] = true;
+    }
+
+    /**
+     * Adds the size of a built where clause.
+     *
+     * @param predicate the where clause, or {@code null} if nothing is filtered
+     */
+    void addPredicates(Predicate predicate, int joinCount) {
+        addPredicates(predicate == null ? 0 : countPredicates(predicate), joinCount);
+    }
+
+    /**
+     * Adds the size of a where clause that was not built as a criteria predicate.
+     *
+     * @param predicateCount the number of its leaf predicates
+     */
+    void addPredicates(int predicateCount, int joinCount) {
+        predicates += predicateCount;
+        joins += joinCount;
+        built = true;
+    }
+
+    void addRows(long count) {
+        rows += count;
+    }
+
+    /**
+     * Wraps the builder tools so that the time spent parsing arguments is added to
+     * {@link SearchPhase#ARGUMENT_PARSING}.
+     */
+    BuilderTools observe(BuilderTools tools) {
+        return new ObservedBuilderTools(tools, new ObservedArgumentParser(tools.getArgumentParser(), this));
+    }
+
+    /**
+     * Reports the measurements of a completed operation.
+     *
+     * @param results the size of its result, negative if unknown
+     */
+    void report(SearchMetrics metrics, Class<?> entityClass, SearchOperation operation, long results, long elapsed) {
+        add(SearchPhase.TOTAL, elapsed);
+        reportPhases(metrics, entityClass, operation);
+        if (built) {
+            metrics.recordPredicates(entityClass, operation, predicates, joins);
+        }
+        if (results >= 0) {
+            metrics.recordResult(entityClass, operation, results, rows);
+        }
+    }
+
+    void fail(SearchMetrics metrics, Class<?> entityClass, SearchOperation operation, Throwable error, long elapsed) {
+        add(SearchPhase.TOTAL, elapsed);
+        reportPhases(metrics, entityClass, operation);
+        metrics.recordError(entityClass, operation, error);
+    }
+
+    private void reportPhases(SearchMetrics metrics, Class<?> entityClass, SearchOperation operation) {
+        for (var phase : SearchPhase.values()) {
+            if (observed[phase.ordinal()]) {
+                metrics.recordPhase(entityClass, operation, phase, nanos[phase.ordinal()]);
+            }
+        }
+    }
+
+    /**
+     * Counts the leaf predicates of a where clause, the operands of the conjunctions and disjunctions.
+     */
+    static int countPredicates(Expression<Boolean> predicate) {
+        if (!(predicate instanceof Predicate compound) || compound.getExpressions().isEmpty()) {
+            return 1;
+        }
+        var count = 0;
+        for (var operand : compound.getExpressions()) {
+            count += countPredicates(operand);
+        }
+        return count;
+    }
+
+    private record ObservedBuilderTools(BuilderTools tools, ArgumentParser argumentParser) implements BuilderTools {
+
+        @Override
+        public PropertiesMapper getPropertiesMapper() {
+            return tools.getPropertiesMapper();
+        }
+
+        @Override
+        public ArgumentParser getArgumentParser() {
+            return argumentParser;
+        }
+
+        @Override
+        public PredicateBuilder getPredicateBuilder() {
+            return tools.getPredicateBuilder();
+        }
+
+        @Override
+        public NodeOptimizer getNodeOptimizer() {
+            return tools.getNodeOptimizer();
+        }
+
+        @Override
+        public CollectionStrategy getCollectionStrategy() {
+            return tools.getCollectionStrategy();
+        }
+
+        @Override
+        public int getMaxSearchTerms() {
+            return tools.getMaxSearchTerms();
+        }
+
+        @Override
+        public int getMaxSearchTermLength() {
+            return tools.getMaxSearchTermLength();
+        }
+    }
+
+    private record ObservedArgumentParser(ArgumentParser parser, SearchObservation observation) implements ArgumentParser {
+
+        @Override
+        public <T> T parse(String argument, Class<T> type) throws ArgumentFormatException, IllegalArgumentException {
+            return observation.time(SearchPhase.ARGUMENT_PARSING, () -> parser.parse(argument, type));
+        }
+
+        @Override
+        public <T> List<T> parse(List<String> arguments, Class<T> type) throws ArgumentFormatException, IllegalArgumentException {
+            return observation.time(SearchPhase.ARGUMENT_PARSING, () -> parser.parse(arguments, type));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package io.github.luidmidev.omnisearch.jpa;
+
+import io.github.luidmidev.omnisearch.core.schemas.MatchMode;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.BuilderTools;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * The global search term, analyzed once per request into the typed values it can be compared with, so that each
+ * searchable column gets at most one predicate of its exact type.
+ */
+final class SearchTerm {
+
+    static final char LIKE_ESCAPE = '\\';
+
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("-?\\d+(\\.\\d+)?");
+    private static final Pattern UUID_PATTERN = Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+    private static final Pattern YEAR_PATTERN = Pattern.compile("\\d{4}");
+    private static final Pattern DATE_PATTERN = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+    private static final Pattern LIKE_WILDCARDS = Pattern.compile("[\\\\%_]");
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("\"([^\"]*)\"|(\\S+)");
+
+    private final String value;
+    private final MatchMode matchMode;
+    private final BigDecimal number;
+    private final UUID uuid;
+    private final Boolean bool;
+    private final Year year;
+    private final LocalDate date;
+    private final Map<Class<?>, Collection<Enum<?>>> enumCandidates = new HashMap<>();
+
+    private SearchTerm(String value, MatchMode matchMode) {
+        this.value = value;
+        this.matchMode = matchMode;
+        this.number = NUMBER_PATTERN.matcher(value).matches() ? new BigDecimal(value) : null;
+        this.uuid = UUID_PATTERN.matcher(value).matches() ? UUID.fromString(value) : null;
+        this.bool = "true".equalsIgnoreCase(value) ? Boolean.TRUE : "false".equalsIgnoreCase(value) ? Boolean.FALSE : null;
+        this.year = YEAR_PATTERN.matcher(value).matches() ? Year.parse(value) : null;
+        this.date = DATE_PATTERN.matcher(value).matches() ? parseDate(value) : null;
+    }
+
+    static SearchTerm of(String value) {
+        return of(value, MatchMode.CONTAINS);
+    }
+
+    static SearchTerm of(String value, MatchMode matchMode) {
+        return new SearchTerm(value, matchMode);
+    }
+
+    /**
+     * Splits a search string into its distinct terms, separated by whitespace. A double-quoted phrase is kept as a
+     * single term. Terms longer than the {@link BuilderTools#getMaxSearchTermLength() maximum length} are ignored,
+     * a truncated term would not match its columns exactly, and so are the terms after the
+     * {@link BuilderTools#getMaxSearchTerms() maximum number} of terms.
+     *
+     * @param search    the search string
+     * @param matchMode the match mode of the terms
+     * @param tools     the tools the limits of the terms are read from
+     * @return the terms of the search string
+     */
+    static List<SearchTerm> tokenize(String search, MatchMode matchMode, BuilderTools tools) {
+        var maxTerms = tools.getMaxSearchTerms();
+        var maxLength = tools.getMaxSearchTermLength();
+        var values = new LinkedHashSet<String>();
+        var matcher = TOKEN_PATTERN.matcher(search);
+        while (matcher.find() && values.size() < maxTerms) {
+            var value = matcher.group(1) != null ? matcher.group(1).strip() : matcher.group(2);
+            if (value.isEmpty() || value.length() > maxLength) continue;
+            values.add(value);
+        }
+
+        var terms = new ArrayList<SearchTerm>(values.size());
+        for (var value : values) {
+            terms.add(of(value, matchMode));
+        }
+        return terms;
+    }
+
+    String value() {
+        return value;
+    }
+
+    /**
+     * Gets the match mode of the request, used by the text columns without their own mode.
+     */
+    MatchMode matchMode() {
+        return matchMode;
+    }
+
+    /**
+     * Gets the like pattern of the term for the given match mode, with the like wildcards of the term escaped by
+     * {@link #LIKE_ESCAPE}.
+     *
+     * @param matchMode the {@link MatchMode#CONTAINS contains} or {@link MatchMode#PREFIX prefix} mode
+     * @param lowerCase whether the term is lower-cased
+     */
+    String likePattern(MatchMode matchMode, boolean lowerCase) {
+        var term = lowerCase ? value.toLowerCase() : value;
+        var escaped = LIKE_WILDCARDS.matcher(term).replaceAll("\\\\$0");
+        return matchMode == MatchMode.PREFIX ? escaped + "%" : "%" + escaped + "%";
+    }
+
+    /**
+     * Converts the term to the given numeric wrapper type.
+     *
+     * @return the number, or {@code null} if the term is not a number exactly representable by the type
+     */
+    Number numberOf(Class<?> numericType) {
+        if (number == null) return null;
+        try {
+            if (numericType == Integer.class) return number.intValueExact();
+            if (numericType == Long.class) return number.longValueExact();
+            if (numericType == Short.class) return number.shortValueExact();
+            if (numericType == Byte.class) return number.byteValueExact();
+            if (numericType == Double.class) return number.doubleValue();
+            if (numericType == Float.class) return number.floatValue();
+            if (numericType == BigInteger.class) return number.toBigIntegerExact();
+            if (numericType == BigDecimal.class) return number;
+        } catch (ArithmeticException e) {
+            return null;
+        }
+        return null;
+    }
+
+    UUID uuid() {
+        return uuid;
+    }
+
+    Boolean bool() {
+        return bool;
+    }
+
+    Year year() {
+        return year;
+    }
+
+    LocalDate date() {
+        return date;
+    }
+
+    /**
+     * Gets the constants of the enum matched by the term, computed once per enum type.
+     */
+    Collection<Enum<?>> enumCandidates(Class<? extends Enum<?>> enumType) {
+        return enumCandidates.computeIfAbsent(enumType, type -> {
+            var lowerValue = value.toLowerCase();
+            var candidates = new HashSet<Enum<?>>();
+            for (var constant : enumType.getEnumConstants()) {
+                if (constant.name().toLowerCase().contains(lowerValue)) {
+                    candidates.add(constant);
+                    continue;
+                }
+                if (constant instanceof JpaEnumSearchCandidate enumCandidate && enumCandidate.isCandidate(value)) {
+                    candidates.add(constant);
+                }
+            }
+            return candidates;
+        });
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.luidmidev.omnisearch.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Table;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.OptionalLong;
+
+/**
+ * {@link CountEstimator} that reads the row count estimate kept by the database in its table statistics.
+ * <p>
+ * The native query receives the table name as its only positional parameter. The table name is read from
+ * {@link Table#name()} or defaults to the entity name.
+ */
+@Slf4j
+public class TableStatisticsCountEstimator implements CountEstimator {
+
+    private final String sql;
+
+    public TableStatisticsCountEstimator(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * Estimator for H2, reading {@code INFORMATION_SCHEMA.TABLES.ROW_COUNT_ESTIMATE}.
+     */
+    public static TableStatisticsCountEstimator h2() {
+        return new TableStatisticsCountEstimator("select ROW_COUNT_ESTIMATE from INFORMATION_SCHEMA.TABLES where upper(TABLE_NAME) = upper(?1) and TABLE_SCHEMA = schema()");
+    }
+
+    /**
+     * Estimator for PostgreSQL, reading {@code pg_class.reltuples}.
+     */
+    public static TableStatisticsCountEstimator postgresql() {
+        return new TableStatisticsCountEstimator("select cast(reltuples as bigint) from pg_class where relname = lower(?1) and relkind = 'r'");
+    }
+
+    /**
+     * Estimator for MySQL and MariaDB, reading {@code information_schema.TABLES.TABLE_ROWS}.
+     */
+    public static TableStatisticsCountEstimator mysql() {
+        return new TableStatisticsCountEstimator("select TABLE_ROWS from information_schema.TABLES where TABLE_SCHEMA = database() and TABLE_NAME = ?1");
+    }
+
+    @Override
+    public OptionalLong estimate(EntityManager em, Class<?> entityClass) {
+        var tableName = tableName(em, entityClass);
+        try {
+            var result = em.createNativeQuery(sql)
+                    .setParameter(1, tableName)
+                    .getResultList();
+
+            if (result.isEmpty() || !(result.getFirst() instanceof Number estimate) || estimate.longValue() < 0) {
+                return OptionalLong.empty();
+            }
+            return OptionalLong.of(estimate.longValue());
+        } catch (PersistenceException e) {
+            log.debug("Unable to estimate the row count of {}", tableName, e);
+            return OptionalLong.empty();
+        }
+    }
+
+    protected String tableName(EntityManager em, Class<?> entityClass) {
+        var table = entityClass.getAnnotation(Table.class);
+        if (table != null && !table.name().isBlank()) {
+            return table.name();
+        }
+        return em.getMetamodel().entity(entityClass).getName();
+    }
+}
@@ -25,6 +25,7 @@ package io.github.luidmidev.omnisearch.jpa.rsql;
 
 import cz.jirutka.rsql.parser.ast.ComparisonOperator;
 import cz.jirutka.rsql.parser.ast.RSQLOperators;
+import io.github.luidmidev.omnisearch.core.rsql.OmniSearchOperators;
 import lombok.Getter;
 
 import java.util.Collections;
@@ -47,7 +48,10 @@ public enum ComparisonOperatorProxy {
     LESS_THAN(RSQLOperators.LESS_THAN),
     LESS_THAN_OR_EQUAL(RSQLOperators.LESS_THAN_OR_EQUAL),
     IN(RSQLOperators.IN),
-    NOT_IN(RSQLOperators.NOT_IN);
+    NOT_IN(RSQLOperators.NOT_IN),
+    ILIKE(OmniSearchOperators.ILIKE),
+    NOT_ILIKE(OmniSearchOperators.NOT_ILIKE),
+    BETWEEN(OmniSearchOperators.BETWEEN);
 
     private final ComparisonOperator operator;
 
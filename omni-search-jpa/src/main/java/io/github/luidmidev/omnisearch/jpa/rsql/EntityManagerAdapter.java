@@ -1,7 +1,10 @@
 package io.github.luidmidev.omnisearch.jpa.rsql;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Subquery;
 import jakarta.persistence.metamodel.Metamodel;
 
 import java.util.function.Supplier;
@@ -12,13 +15,41 @@ public final class EntityManagerAdapter {
 
     Supplier<CriteriaBuilder> criteriaBuilderSupplier;
 
+    CommonAbstractCriteria query;
+
+    QueryParameters parameters;
+
+    JoinRegistry joinRegistry = new JoinRegistry();
+
     public EntityManagerAdapter(EntityManager entityManager) {
         this(entityManager::getMetamodel, entityManager::getCriteriaBuilder);
     }
 
+    public EntityManagerAdapter(EntityManager entityManager, CommonAbstractCriteria query) {
+        this(entityManager::getMetamodel, entityManager::getCriteriaBuilder, query);
+    }
+
     public EntityManagerAdapter(Supplier<Metamodel> metamodelSupplier, Supplier<CriteriaBuilder> criteriaBuilderSupplier) {
+        this(metamodelSupplier, criteriaBuilderSupplier, null);
+    }
+
+    public EntityManagerAdapter(Supplier<Metamodel> metamodelSupplier, Supplier<CriteriaBuilder> criteriaBuilderSupplier, CommonAbstractCriteria query) {
+        this(metamodelSupplier, criteriaBuilderSupplier, query, null);
+    }
+
+    /**
+     * Creates an adapter whose predicates compare against parameters registered in the given {@link QueryParameters}
+     * instead of embedding their values, the parameters must then be bound to every query created from the criteria.
+     */
+    public EntityManagerAdapter(EntityManager entityManager, CommonAbstractCriteria query, QueryParameters parameters) {
+        this(entityManager::getMetamodel, entityManager::getCriteriaBuilder, query, parameters);
+    }
+
+    public EntityManagerAdapter(Supplier<Metamodel> metamodelSupplier, Supplier<CriteriaBuilder> criteriaBuilderSupplier, CommonAbstractCriteria query, QueryParameters parameters) {
         this.metamodelSupplier = metamodelSupplier;
         this.criteriaBuilderSupplier = criteriaBuilderSupplier;
+        this.query = query;
+        this.parameters = parameters;
     }
 
     public Metamodel getMetamodel() {
@@ -28,4 +59,63 @@ public final class EntityManagerAdapter {
     public CriteriaBuilder getCriteriaBuilder() {
         return criteriaBuilderSupplier.get();
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the joins shared by every predicate and ordering of the query this adapter is used for.
+     */
+    public JoinRegistry getJoinRegistry() {
+        return joinRegistry;
+    }
+
+    /**
+     * Gets the query the predicates are built for, {@code null} when it is unknown and no subquery can be created.
+     */
+    public CommonAbstractCriteria getQuery() {
+        return query;
+    }
+
+    /**
+     * Gets the parameters the values of the predicates are bound to, {@code null} when the values are passed to the
+     * criteria builder as they are.
+     */
+    public QueryParameters getParameters() {
+        return parameters;
+    }
+
+    public boolean isParameterized() {
+        return parameters != null;
+    }
+
+    /**
+     * Creates a parameter bound to the given value.
+     *
+     * @throws IllegalStateException if this adapter is not {@link #isParameterized() parameterized}
+     */
+    public <T> ParameterExpression<T> parameter(T value) {
+        if (parameters == null) {
+            throw new IllegalStateException("The adapter has no query parameters");
+        }
+        return parameters.bind(getCriteriaBuilder(), value);
+    }
+
+    /**
+     * Creates a {@code select 1} subquery of the query of this adapter, to be wrapped in an {@code EXISTS}.
+     *
+     * @throws IllegalStateException if the query is unknown
+     */
+    public Subquery<Integer> existsSubquery() {
+        if (query == null) {
+            throw new IllegalStateException("The query is required to create a subquery");
+        }
+        var subquery = query.subquery(Integer.class);
+        return subquery.select(getCriteriaBuilder().literal(1));
+    }
+
+    /**
+     * Gets an adapter that builds its predicates inside the given subquery, with its own joins and the parameters
+     * of this adapter.
+     */
+    public EntityManagerAdapter forSubquery(Subquery<?> subquery) {
+        return new EntityManagerAdapter(metamodelSupplier, criteriaBuilderSupplier, subquery, parameters);
+    }
+}
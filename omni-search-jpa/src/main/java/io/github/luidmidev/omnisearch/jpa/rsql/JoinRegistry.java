@@ -0,0 +1,112 @@
+package io.github.luidmidev.omnisearch.jpa.rsql;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.Metamodel;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Per-query registry of the joins created while building the predicates and the ordering, so that each
+ * association is joined exactly once whatever the join type its users ask for.
+ * <p>
+ * The first join of an association decides its type. The conditions are built before the global search and the
+ * sort, so an association compared by a condition is inner joined, and the left joins of the search and the sort
+ * reuse it: the inner join already restricts the rows to the entities having the association, which the condition
+ * requires anyway. A join type cannot be changed once the join is created, so an inner join asked for an association
+ * already left joined reuses the left join, where the comparisons of the missing association see {@code null}.
+ */
+public final class JoinRegistry {
+
+    private final Map<From<?, ?>, Map<String, Join<?, ?>>> joins = new IdentityHashMap<>();
+
+    /**
+     * Gets the join of the attribute from the given source, creating it with the given type on first use.
+     *
+     * @param from      the source of the join
+     * @param attribute the association or element collection attribute
+     * @param joinType  the join type, used only if the attribute is not joined yet
+     * @return the shared join
+     */
+    public Join<?, ?> join(From<?, ?> from, String attribute, JoinType joinType) {
+        return joins
+                .computeIfAbsent(from, key -> new HashMap<>())
+                .computeIfAbsent(attribute, key -> from.join(attribute, joinType));
+    }
+
+    /**
+     * Resolves a dot-separated property path, joining the traversed associations through this registry.
+     *
+     * @param from         the source of the path
+     * @param propertyPath the dot-separated property path
+     * @param joinType     the join type of the traversed associations
+     * @param metamodel    the metamodel used to tell associations from embedded attributes
+     * @return the path of the property
+     */
+    public Path<?> path(From<?, ?> from, String propertyPath, JoinType joinType, Metamodel metamodel) {
+        var properties = propertyPath.split("\\.");
+        Path<?> path = from;
+
+        for (int i = 0; i < properties.length; i++) {
+            var property = properties[i];
+            var isLast = i == properties.length - 1;
+            if (!isLast && path instanceof From<?, ?> source && isJoinable(source, property, metamodel)) {
+                path = join(source, property, joinType);
+            } else {
+                path = path.get(property);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Verifies if any collection-valued association or element collection was joined.
+     *
+     * @return <tt>true</tt> if a collection was joined, <tt>false</tt> otherwise.
+     */
+    public boolean hasCollectionJoins() {
+        for (var sourceJoins : joins.values()) {
+            for (var join : sourceJoins.values()) {
+                if (join.getAttribute().isCollection()) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of joins created through this registry.
+     *
+     * @return the number of joins
+     */
+    public int size() {
+        var size = 0;
+        for (var sourceJoins : joins.values()) {
+            size += sourceJoins.size();
+        }
+        return size;
+    }
+
+    /**
+     * Correlates a subquery to a source of the enclosing query.
+     *
+     * @param subquery the subquery
+     * @param from     the root or join of the enclosing query
+     * @return the correlated source, usable in the subquery
+     */
+    public static From<?, ?> correlate(Subquery<?> subquery, From<?, ?> from) {
+        if (from instanceof Root<?> root) return subquery.correlate(root);
+        if (from instanceof Join<?, ?> join) return subquery.correlate(join);
+        throw new IllegalArgumentException("Cannot correlate " + from.getClass().getName());
+    }
+
+    private static boolean isJoinable(From<?, ?> from, String property, Metamodel metamodel) {
+        var attribute = metamodel.managedType(from.getJavaType()).getAttribute(property);
+        return attribute.isAssociation() || attribute.isCollection();
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.luidmidev.omnisearch.jpa.rsql;
+
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.ParameterExpression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The parameters of a criteria query together with the values they are bound to, in creation order.
+ * <p>
+ * Predicates compare against these parameters instead of embedding the values in the query, so two requests that
+ * only differ in their values produce queries of the same shape, and a query built for one request can be executed
+ * for another by {@link #applyTo(Query, List) binding its values}.
+ */
+public final class QueryParameters {
+
+    /**
+     * Prefix of the names given to the parameters. Hibernate tells unnamed criteria parameters apart by their
+     * identity hash code, two of them in the same query may collide and be taken for the same parameter.
+     */
+    private static final String NAME_PREFIX = "omniSearchParam";
+
+    private final List<ParameterExpression<?>> expressions = new ArrayList<>();
+    private final List<Class<?>> types = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+
+    /**
+     * Creates a parameter bound to the given value, named after its position among these parameters.
+     *
+     * @param builder the criteria builder of the query
+     * @param value   the value, typed after its class
+     * @return the parameter expression to use in place of the value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ParameterExpression<T> bind(CriteriaBuilder builder, T value) {
+        var type = (Class<T>) typeOf(value);
+        var expression = builder.parameter(type, NAME_PREFIX + expressions.size());
+        expressions.add(expression);
+        types.add(type);
+        values.add(value);
+        return expression;
+    }
+
+    /**
+     * Gets the bound values, in the order the parameters were created.
+     */
+    public List<Object> getValues() {
+        return Collections.unmodifiableList(values);
+    }
+
+    public int size() {
+        return expressions.size();
+    }
+
+    /**
+     * Binds the values of these parameters to the query.
+     *
+     * @return the given query
+     */
+    public <Q extends Query> Q applyTo(Q query) {
+        return applyTo(query, values);
+    }
+
+    /**
+     * Binds other values to the parameters of the query, typically the {@link #getValues() values} collected for a
+     * request of the same shape as the one the query was built for.
+     *
+     * @param query  a query created from the criteria these parameters belong to
+     * @param values the values, in the order of the parameters
+     * @return the given query
+     * @throws IllegalArgumentException if the number of values does not match the number of parameters
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <Q extends Query> Q applyTo(Q query, List<?> values) {
+        if (values.size() != expressions.size()) {
+            throw new IllegalArgumentException("Expected " + expressions.size() + " parameter values, got " + values.size());
+        }
+        for (int i = 0; i < expressions.size(); i++) {
+            query.setParameter((ParameterExpression) expressions.get(i), values.get(i));
+        }
+        return query;
+    }
+
+    /**
+     * Verifies that the values can be bound to these parameters, that is, there are as many values as parameters and
+     * each value is of the type its parameter was created with. The types are kept by this class, a provider may
+     * only resolve the type of an enum parameter once the parameter is part of a query.
+     */
+    public boolean accepts(List<?> values) {
+        if (values.size() != types.size()) {
+            return false;
+        }
+        for (int i = 0; i < types.size(); i++) {
+            if (!types.get(i).equals(typeOf(values.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Class<?> typeOf(Object value) {
+        if (value == null) return Object.class;
+        if (value instanceof Enum<?> constant) return constant.getDeclaringClass();
+        return value.getClass();
+    }
+}
@@ -28,6 +28,16 @@ public interface BuilderTools {
 
     BuilderTools DEFAULT = new DefaultBuilderTools();
 
+    /**
+     * Default maximum number of terms of the global search.
+     */
+    int DEFAULT_MAX_SEARCH_TERMS = 8;
+
+    /**
+     * Default maximum length of a term of the global search.
+     */
+    int DEFAULT_MAX_SEARCH_TERM_LENGTH = 64;
+
     /**
      * Get a mapper for the properties.
      *
@@ -50,4 +60,45 @@ public interface BuilderTools {
      * @return PredicateBuilderStrategy
      */
     PredicateBuilder getPredicateBuilder();
+
+
+    /**
+     * Get an optimizer for rewriting the RSQL AST before the predicates are created.
+     *
+     * @return NodeOptimizer, the shared {@link NodeOptimizer#DEFAULT} unless overridden
+     */
+    default NodeOptimizer getNodeOptimizer() {
+        return NodeOptimizer.DEFAULT;
+    }
+
+
+    /**
+     * Get the strategy used for predicates on collection-valued attributes.
+     *
+     * @return CollectionStrategy, {@link CollectionStrategy#JOIN} unless overridden
+     */
+    default CollectionStrategy getCollectionStrategy() {
+        return CollectionStrategy.JOIN;
+    }
+
+
+    /**
+     * Get the maximum number of terms of the global search, every term must match at least one column and the
+     * following terms are ignored.
+     *
+     * @return the maximum number of terms, {@link #DEFAULT_MAX_SEARCH_TERMS} unless overridden
+     */
+    default int getMaxSearchTerms() {
+        return DEFAULT_MAX_SEARCH_TERMS;
+    }
+
+
+    /**
+     * Get the maximum length of a term of the global search, longer terms are ignored.
+     *
+     * @return the maximum length of a term, {@link #DEFAULT_MAX_SEARCH_TERM_LENGTH} unless overridden
+     */
+    default int getMaxSearchTermLength() {
+        return DEFAULT_MAX_SEARCH_TERM_LENGTH;
+    }
 }
@@ -0,0 +1,17 @@
+package io.github.luidmidev.omnisearch.jpa.rsql.builder;
+
+/**
+ * How predicates on collection-valued attributes are applied to the query.
+ */
+public enum CollectionStrategy {
+
+    /**
+     * Join the collection into the main query, one row is produced per matching element.
+     */
+    JOIN,
+
+    /**
+     * Test the collection in a correlated {@code EXISTS} subquery, the main query keeps one row per entity.
+     */
+    EXISTS
+}
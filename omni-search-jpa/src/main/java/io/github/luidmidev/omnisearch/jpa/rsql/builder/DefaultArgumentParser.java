@@ -154,17 +154,14 @@ public class DefaultArgumentParser implements ArgumentParser {
         if (type.equals(LocalDateTime.class)) return (T) parseLocalDateTime(argument);
         if (type.equals(LocalTime.class)) return (T) parseLocalTime(argument);
         if (type.equals(Instant.class)) return (T) parseInstant(argument);
-        if (type.equals(ZonedDateTime.class)) return (T) ZonedDateTime.parse(argument);
-        if (type.equals(OffsetDateTime.class)) return (T) OffsetDateTime.parse(argument);
+        if (type.equals(ZonedDateTime.class)) return (T) parseZonedDateTime(argument);
+        if (type.equals(OffsetDateTime.class)) return (T) parseZonedDateTime(argument).toOffsetDateTime();
         if (type.equals(OffsetTime.class)) return (T) OffsetTime.parse(argument);
         if (type.equals(Duration.class)) return (T) Duration.parse(argument);
         if (type.equals(Period.class)) return (T) Period.parse(argument);
 
         // Legacy Date support
-        if (type.equals(Date.class)) {
-            var dateTime = parseLocalDateTime(argument);
-            return (T) Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
-        }
+        if (type.equals(Date.class)) return (T) Date.from(parseInstant(argument));
 
         return null;
     }
@@ -275,6 +272,18 @@ public class DefaultArgumentParser implements ArgumentParser {
         throw new DateTimeParseException("Unable to parse LocalTime: " + argument, argument, 0);
     }
 
+    /**
+     * Parse ZonedDateTime, a date or date-time without offset is taken in the system time zone
+     */
+    private ZonedDateTime parseZonedDateTime(String argument) {
+        try {
+            return ZonedDateTime.parse(argument);
+        } catch (DateTimeParseException ignored) {
+            // Continue
+        }
+        return parseLocalDateTime(argument).atZone(ZoneId.systemDefault());
+    }
+
     /**
      * Parse Instant with flexible format support
      */
@@ -286,6 +295,13 @@ public class DefaultArgumentParser implements ArgumentParser {
             // Continue
         }
 
+        // Try with an explicit offset or zone
+        try {
+            return ZonedDateTime.parse(argument).toInstant();
+        } catch (DateTimeParseException ignored) {
+            // Continue
+        }
+
         // Try as epoch milliseconds
         try {
             long epochMilli = Long.parseLong(argument);
@@ -302,6 +318,13 @@ public class DefaultArgumentParser implements ArgumentParser {
             // Continue
         }
 
+        // Try as a local date or date-time in the system time zone
+        try {
+            return parseLocalDateTime(argument).atZone(ZoneId.systemDefault()).toInstant();
+        } catch (DateTimeParseException ignored) {
+            // Continue
+        }
+
         throw new DateTimeParseException("Unable to parse Instant: " + argument, argument, 0);
     }
 
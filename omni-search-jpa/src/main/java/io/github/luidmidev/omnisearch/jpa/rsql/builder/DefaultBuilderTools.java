@@ -31,6 +31,10 @@ public class DefaultBuilderTools implements BuilderTools {
     private PropertiesMapper propertiesMapper;
     private ArgumentParser argumentParser;
     private PredicateBuilder predicateBuilder;
+    private NodeOptimizer nodeOptimizer;
+    private CollectionStrategy collectionStrategy;
+    private int maxSearchTerms = DEFAULT_MAX_SEARCH_TERMS;
+    private int maxSearchTermLength = DEFAULT_MAX_SEARCH_TERM_LENGTH;
 
     public PropertiesMapper getPropertiesMapper() {
         if (this.propertiesMapper == null) {
@@ -53,4 +57,18 @@ public class DefaultBuilderTools implements BuilderTools {
         return this.predicateBuilder;
     }
 
+    public NodeOptimizer getNodeOptimizer() {
+        if (this.nodeOptimizer == null) {
+            this.nodeOptimizer = NodeOptimizer.DEFAULT;
+        }
+        return this.nodeOptimizer;
+    }
+
+    public CollectionStrategy getCollectionStrategy() {
+        if (this.collectionStrategy == null) {
+            this.collectionStrategy = CollectionStrategy.JOIN;
+        }
+        return this.collectionStrategy;
+    }
+
 }
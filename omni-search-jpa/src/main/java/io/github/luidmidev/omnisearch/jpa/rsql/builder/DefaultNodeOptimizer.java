@@ -0,0 +1,293 @@
+package io.github.luidmidev.omnisearch.jpa.rsql.builder;
+
+import cz.jirutka.rsql.parser.ast.*;
+import io.github.luidmidev.omnisearch.jpa.rsql.EntityManagerAdapter;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+/**
+ * Default {@link NodeOptimizer}, it:
+ * <ul>
+ *     <li>flattens nested logical nodes with the same operator,</li>
+ *     <li>removes duplicated comparisons,</li>
+ *     <li>detects AND-ed comparisons that contradict each other, like {@code a==1;a!=1} or {@code a==1;a==2}, the
+ *     latter only on non-string properties, as two different strings may still be equal under the database
+ *     collation,</li>
+ *     <li>merges OR-ed equalities on the same selector into {@code =in=},</li>
+ *     <li>folds single-argument {@code =in=} and {@code =out=} into {@code ==} and {@code !=}.</li>
+ * </ul>
+ * Rewrites that depend on the argument values are only applied to comparisons by exact equality, i.e. whose
+ * resolved property type is not a {@link String}, or is one compared with
+ * {@link DefaultPredicateBuilder#isExactStringEquality() exact string equality}, without wildcards nor a
+ * case-insensitive collation.
+ * With the {@link CollectionStrategy#EXISTS} strategy, comparisons through a collection are tested in subqueries of
+ * their own and may match different elements, so they never contradict each other.
+ */
+@Slf4j
+public class DefaultNodeOptimizer implements NodeOptimizer {
+
+    @Override
+    public Optional<Node> optimize(Node node, Class<?> entity, EntityManagerAdapter manager, BuilderTools tools) {
+        var existsSubqueries = tools.getCollectionStrategy() == CollectionStrategy.EXISTS && manager.getQuery() != null;
+        return rewrite(node, new Context(entity, manager.getMetamodel(), tools, existsSubqueries));
+    }
+
+    private Optional<Node> rewrite(Node node, Context context) {
+        if (node instanceof LogicalNode logical) {
+            return rewrite(logical, context);
+        }
+        if (node instanceof ComparisonNode comparison) {
+            return Optional.of(fold(comparison, context));
+        }
+        return Optional.of(node);
+    }
+
+    private Optional<Node> rewrite(LogicalNode logical, Context context) {
+        var operator = logical.getOperator();
+        var children = new LinkedHashSet<Node>();
+
+        for (var child : logical.getChildren()) {
+            var rewritten = rewrite(child, context);
+            if (rewritten.isEmpty()) {
+                if (operator == LogicalOperator.AND) return Optional.empty();
+                continue;
+            }
+            var node = rewritten.get();
+            if (node instanceof LogicalNode nested && nested.getOperator() == operator) {
+                children.addAll(nested.getChildren());
+            } else {
+                children.add(node);
+            }
+        }
+
+        if (children.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var result = new ArrayList<>(children);
+        if (operator == LogicalOperator.AND) {
+            if (isContradictory(result, context)) {
+                log.debug("Conditions {} can never be satisfied", logical);
+                return Optional.empty();
+            }
+        } else {
+            result = mergeEqualities(result, context);
+        }
+
+        if (result.size() == 1) {
+            return Optional.of(result.getFirst());
+        }
+        return Optional.of(operator == LogicalOperator.AND ? new AndNode(result) : new OrNode(result));
+    }
+
+    private boolean isContradictory(List<Node> nodes, Context context) {
+        var comparisons = nodes.stream()
+                .filter(ComparisonNode.class::isInstance)
+                .map(ComparisonNode.class::cast)
+                .toList();
+
+        for (int i = 0; i < comparisons.size(); i++) {
+            for (int j = i + 1; j < comparisons.size(); j++) {
+                if (contradicts(comparisons.get(i), comparisons.get(j), context)) return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean contradicts(ComparisonNode left, ComparisonNode right, Context context) {
+        if (!left.getSelector().equals(right.getSelector())) return false;
+        if (context.isTestedInSubquery(left)) return false;
+
+        var leftOperator = left.getOperator();
+        var rightOperator = right.getOperator();
+        var sameArguments = new HashSet<>(left.getArguments()).equals(new HashSet<>(right.getArguments()));
+
+        if (sameArguments && (isNegation(leftOperator, rightOperator) || isNegation(rightOperator, leftOperator))) {
+            return true;
+        }
+
+        if (RSQLOperators.EQUAL.equals(leftOperator) && RSQLOperators.EQUAL.equals(rightOperator)) {
+            var type = context.exactType(left);
+            if (type == null || String.class.equals(type) || context.exactType(right) == null) return false;
+            var leftValue = context.parse(left.getArguments().getFirst(), type);
+            var rightValue = context.parse(right.getArguments().getFirst(), type);
+            return leftValue != null && rightValue != null && !leftValue.equals(rightValue);
+        }
+        return false;
+    }
+
+    private static boolean isNegation(ComparisonOperator operator, ComparisonOperator other) {
+        return (RSQLOperators.EQUAL.equals(operator) && RSQLOperators.NOT_EQUAL.equals(other))
+                || (RSQLOperators.IN.equals(operator) && RSQLOperators.NOT_IN.equals(other));
+    }
+
+    private ArrayList<Node> mergeEqualities(List<Node> nodes, Context context) {
+        var merged = new LinkedHashMap<Object, Object>();
+
+        for (var node : nodes) {
+            if (node instanceof ComparisonNode comparison && isMergeable(comparison, context)) {
+                var key = comparison.getSelector();
+                var existing = merged.get(key);
+                if (existing instanceof LinkedHashSet<?> arguments) {
+                    @SuppressWarnings("unchecked")
+                    var values = (LinkedHashSet<String>) arguments;
+                    values.addAll(comparison.getArguments());
+                } else {
+                    merged.put(key, new LinkedHashSet<>(comparison.getArguments()));
+                }
+                continue;
+            }
+            merged.put(node, node);
+        }
+
+        var result = new ArrayList<Node>(merged.size());
+        for (var entry : merged.entrySet()) {
+            if (entry.getValue() instanceof LinkedHashSet<?> arguments) {
+                @SuppressWarnings("unchecked")
+                var values = List.copyOf((LinkedHashSet<String>) arguments);
+                var selector = (String) entry.getKey();
+                result.add(values.size() == 1
+                        ? new ComparisonNode(RSQLOperators.EQUAL, selector, values)
+                        : new ComparisonNode(RSQLOperators.IN, selector, values)
+                );
+            } else {
+                result.add((Node) entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private boolean isMergeable(ComparisonNode comparison, Context context) {
+        var operator = comparison.getOperator();
+        var isEquality = RSQLOperators.EQUAL.equals(operator) || RSQLOperators.IN.equals(operator);
+        return isEquality && hasValues(comparison) && context.exactType(comparison) != null;
+    }
+
+    private Node fold(ComparisonNode comparison, Context context) {
+        if (comparison.getArguments().size() != 1 || !hasValues(comparison)) return comparison;
+
+        var operator = comparison.getOperator();
+        if (RSQLOperators.IN.equals(operator) && context.exactType(comparison) != null) {
+            return comparison.withOperator(RSQLOperators.EQUAL);
+        }
+        if (RSQLOperators.NOT_IN.equals(operator) && context.exactType(comparison) != null) {
+            return comparison.withOperator(RSQLOperators.NOT_EQUAL);
+        }
+        return comparison;
+    }
+
+    private static boolean hasValues(ComparisonNode comparison) {
+        for (var argument : comparison.getArguments()) {
+            if (argument == null || argument.isBlank()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Per-optimization state: resolves and memoizes the property type of the selectors.
+     */
+    private static final class Context {
+
+        private final Class<?> entity;
+        private final Metamodel metamodel;
+        private final BuilderTools tools;
+        private final boolean existsSubqueries;
+        private final Map<String, Optional<Resolution>> resolutions = new HashMap<>();
+
+        private Context(Class<?> entity, Metamodel metamodel, BuilderTools tools, boolean existsSubqueries) {
+            this.entity = entity;
+            this.metamodel = metamodel;
+            this.tools = tools;
+            this.existsSubqueries = existsSubqueries;
+        }
+
+        /**
+         * Verifies if the comparison is tested in an EXISTS subquery of its own, i.e. its selector traverses a
+         * collection and the {@link CollectionStrategy#EXISTS} strategy is used. Unresolvable selectors are assumed to.
+         */
+        boolean isTestedInSubquery(ComparisonNode comparison) {
+            if (!existsSubqueries) return false;
+            var resolution = resolve(comparison.getSelector());
+            return resolution == null || resolution.traversesCollection();
+        }
+
+        /**
+         * Gets the property type of the selector of the comparison if its arguments are compared by exact equality.
+         * Strings only are when the {@link DefaultPredicateBuilder default predicate builder} compares them
+         * {@link DefaultPredicateBuilder#isExactStringEquality() exactly} and they have no wildcard.
+         *
+         * @return the property type, or {@code null} if it cannot be resolved or is compared by a like pattern
+         */
+        Class<?> exactType(ComparisonNode comparison) {
+            var resolution = resolve(comparison.getSelector());
+            if (resolution == null || (existsSubqueries && resolution.traversesCollection())) return null;
+            var type = resolution.type();
+            if (String.class.equals(type)) {
+                if (!(tools.getPredicateBuilder() instanceof DefaultPredicateBuilder predicates)) return null;
+                for (var argument : comparison.getArguments()) {
+                    if (predicates.isLikeCompared(argument)) return null;
+                }
+            }
+            return type;
+        }
+
+        Object parse(String argument, Class<?> type) {
+            try {
+                return tools.getArgumentParser().parse(argument, type);
+            } catch (RuntimeException e) {
+                log.trace("Unable to parse {} as {}", argument, type, e);
+                return null;
+            }
+        }
+
+        private Resolution resolve(String selector) {
+            return resolutions
+                    .computeIfAbsent(selector, key -> Optional.ofNullable(resolveType(key, entity)))
+                    .orElse(null);
+        }
+
+        /**
+         * Resolves the property type of the selector.
+         *
+         * @return the type, or {@code null} if it cannot be resolved, is an element collection or a string compared by collation
+         */
+        private Resolution resolveType(String selector, Class<?> startType) {
+            var type = startType;
+            var traversesCollection = false;
+            Attribute<?, ?> attribute = null;
+            for (var property : selector.split("\\.")) {
+                var mappedProperty = tools.getPropertiesMapper().translate(property, type);
+                if (!mappedProperty.equals(property)) {
+                    var mapped = resolveType(mappedProperty, type);
+                    if (mapped == null) return null;
+                    type = mapped.type();
+                    traversesCollection |= mapped.traversesCollection();
+                    continue;
+                }
+                try {
+                    attribute = metamodel.managedType(type).getAttribute(property);
+                    traversesCollection |= attribute.isCollection();
+                    type = attribute.isCollection()
+                            ? ((PluralAttribute<?, ?, ?>) attribute).getBindableJavaType()
+                            : attribute.getJavaType();
+                    if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.ELEMENT_COLLECTION) {
+                        return null;
+                    }
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+            if (String.class.equals(type) && attribute != null && DefaultPredicateBuilder.hasCollationCase(attribute)) {
+                return null;
+            }
+            return new Resolution(type, traversesCollection);
+        }
+    }
+
+    private record Resolution(Class<?> type, boolean traversesCollection) {
+    }
+}
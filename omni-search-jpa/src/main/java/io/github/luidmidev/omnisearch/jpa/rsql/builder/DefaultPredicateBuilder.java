@@ -28,15 +28,29 @@ import cz.jirutka.rsql.parser.ast.ComparisonNode;
 import cz.jirutka.rsql.parser.ast.ComparisonOperator;
 import cz.jirutka.rsql.parser.ast.LogicalNode;
 import cz.jirutka.rsql.parser.ast.Node;
+import cz.jirutka.rsql.parser.ast.RSQLOperators;
+import io.github.luidmidev.omnisearch.core.SearchMatch;
+import io.github.luidmidev.omnisearch.core.rsql.OmniSearchOperators;
+import io.github.luidmidev.omnisearch.core.schemas.CaseStrategy;
 import io.github.luidmidev.omnisearch.jpa.rsql.ComparisonOperatorProxy;
 import io.github.luidmidev.omnisearch.jpa.rsql.EntityManagerAdapter;
+import io.github.luidmidev.omnisearch.jpa.rsql.JoinRegistry;
 import jakarta.persistence.criteria.*;
 import jakarta.persistence.metamodel.Attribute;
 import jakarta.persistence.metamodel.ManagedType;
 import jakarta.persistence.metamodel.PluralAttribute;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
 import java.util.*;
 
 @Slf4j
@@ -45,7 +59,20 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
 
     public static final Character LIKE_WILDCARD = '*';
 
+    private static final Set<Class<?>> DATE_TIME_TYPES = Set.of(LocalDateTime.class, OffsetDateTime.class, ZonedDateTime.class, Instant.class);
+
+    /**
+     * @deprecated date comparisons are one-sided comparisons and ranges use {@code =between=}, kept for the
+     * subclasses calling {@link #createBetweenThan}.
+     */
+    @Deprecated
     protected static final Date START_DATE;
+
+    /**
+     * @deprecated date comparisons are one-sided comparisons and ranges use {@code =between=}, kept for the
+     * subclasses calling {@link #createBetweenThan}.
+     */
+    @Deprecated
     protected static final Date END_DATE;
 
     static {
@@ -59,6 +86,48 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
         START_DATE = cal.getTime();
     }
 
+    /**
+     * Pad in lists to the next power of two, so that the number of distinct SQL strings grows with the
+     * logarithm of the list size instead of the list size.
+     */
+    @Getter
+    @Setter
+    private boolean inListPadding = true;
+
+    /**
+     * Maximum number of values of a single in list, longer lists are split into chunks joined with OR.
+     */
+    @Getter
+    private int inListChunkSize = 1000;
+
+    /**
+     * Name of a provider function {@code f(array, value)} that tests whether an array contains a value. When set,
+     * in lists are passed as a single array argument, see {@link #createArrayArgument}. {@code null} to disable.
+     * <p>
+     * Only applies to {@link EntityManagerAdapter#isParameterized() parameterized} adapters, the array must be bound
+     * as a parameter and other adapters keep using in lists.
+     */
+    @Getter
+    @Setter
+    private String inListArrayFunction;
+
+    /**
+     * Compare {@code ==} and {@code !=} on strings without a {@link #LIKE_WILDCARD wildcard} with a plain {@code =}
+     * and {@code <>}, which an index on the column can serve, instead of a case-insensitive like. Disabled by default,
+     * {@code name==alice} then matches {@code Alice}; once enabled it only matches as the column collation compares.
+     * The case-insensitive comparison stays available through {@code =ilike=} and {@code =nilike=}.
+     */
+    @Getter
+    @Setter
+    private boolean exactStringEquality;
+
+    public void setInListChunkSize(int inListChunkSize) {
+        if (inListChunkSize < 1) {
+            throw new IllegalArgumentException("The in list chunk size must be positive, got " + inListChunkSize);
+        }
+        this.inListChunkSize = inListChunkSize;
+    }
+
     /**
      * Private constructor.
      */
@@ -130,11 +199,100 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      */
     public Predicate createPredicate(ComparisonNode comparison, @NotNull From<?, ?> startRoot, EntityManagerAdapter entityManager, BuilderTools misc) {
         log.trace("Creating Predicate for comparison node: {}", comparison);
+        if (misc.getCollectionStrategy() == CollectionStrategy.EXISTS && entityManager.getQuery() != null) {
+            var exists = createExistsPredicate(comparison, startRoot, entityManager, misc);
+            if (exists != null) {
+                return exists;
+            }
+        }
+
         var propertyPath = findPropertyPath(comparison.getSelector(), startRoot, entityManager, misc);
+        return createPredicate(propertyPath, comparison, entityManager, misc);
+    }
 
+    /**
+     * Create a Predicate on the resolved property path of the comparison, parsing its arguments to the type of the path.
+     */
+    private Predicate createPredicate(Path<?> propertyPath, ComparisonNode comparison, EntityManagerAdapter entityManager, BuilderTools misc) {
         log.trace("Cast all arguments to type {}.", propertyPath.getJavaType().getName());
-        var castedArguments = misc.getArgumentParser().parse(comparison.getArguments(), propertyPath.getJavaType());
-        return createPredicate(propertyPath, comparison.getOperator(), castedArguments, entityManager);
+        var parser = misc.getArgumentParser();
+        var castedArguments = parser.parse(comparison.getArguments(), propertyPath.getJavaType());
+
+        var operator = comparison.getOperator();
+        if (OmniSearchOperators.BETWEEN.equals(operator) && castedArguments.size() == 2) {
+            var nextDay = nextDayOfDateBound(comparison.getArguments().get(1), propertyPath.getJavaType(), parser);
+            if (nextDay != null) {
+                return createDayRange(propertyPath, operator, castedArguments.getFirst(), nextDay, entityManager);
+            }
+        }
+        if (isDayBoundOperator(operator) && castedArguments.size() == 1) {
+            // "after the day" starts with the next day, "up to the day" stops before it
+            var nextDay = nextDayOfDateBound(comparison.getArguments().getFirst(), propertyPath.getJavaType(), parser);
+            if (nextDay != null) {
+                return RSQLOperators.GREATER_THAN.equals(operator)
+                        ? greaterThanOrEqualPredicate(propertyPath, operator, entityManager, List.of(nextDay))
+                        : lessThanPredicate(propertyPath, operator, List.of(nextDay), entityManager);
+            }
+        }
+        return createPredicate(propertyPath, operator, castedArguments, entityManager);
+    }
+
+    /**
+     * Create an EXISTS Predicate for a comparison whose selector traverses a collection-valued attribute,
+     * the collection is joined inside a subquery correlated to startRoot.
+     *
+     * @param comparison     RSQL AST comparison node.
+     * @param startRoot      From<?,?> that predicate expression paths depends on.
+     * @param entityManager  JPA EntityManager.
+     * @param misc           Facade with all necessary tools for predicate creation.
+     * @return Predicate the EXISTS predicate, or <tt>null</tt> if the selector does not traverse a collection.
+     */
+    protected Predicate createExistsPredicate(ComparisonNode comparison, From<?, ?> startRoot, EntityManagerAdapter entityManager, BuilderTools misc) {
+        var graph = comparison.getSelector().split("\\.");
+
+        var metaModel = entityManager.getMetamodel();
+        var classMetadata = metaModel.managedType(startRoot.getJavaType());
+
+        for (int i = 0; i < graph.length; i++) {
+            var property = graph[i];
+            var mappedProperty = misc.getPropertiesMapper().translate(property, classMetadata.getJavaType());
+            if (!mappedProperty.equals(property) || !hasPropertyName(property, classMetadata)) {
+                // mapped and unknown properties are left to findPropertyPath
+                return null;
+            }
+            if (classMetadata.getAttribute(property).isCollection()) {
+                return createExistsPredicate(comparison, startRoot, graph, i, entityManager, misc);
+            }
+            if (!isAssociationType(property, classMetadata)) {
+                return null;
+            }
+            classMetadata = metaModel.managedType(findPropertyType(property, classMetadata));
+        }
+        return null;
+    }
+
+    private Predicate createExistsPredicate(ComparisonNode comparison, From<?, ?> startRoot, String[] graph, int collectionIndex, EntityManagerAdapter entityManager, BuilderTools misc) {
+        var subquery = entityManager.existsSubquery();
+        var subqueryManager = entityManager.forSubquery(subquery);
+        var joins = subqueryManager.getJoinRegistry();
+
+        From<?, ?> from = JoinRegistry.correlate(subquery, startRoot);
+        for (int i = 0; i <= collectionIndex; i++) {
+            from = joins.join(from, graph[i], JoinType.INNER);
+        }
+        log.trace("Create an exists subquery on collection {}.", graph[collectionIndex]);
+
+        Predicate predicate;
+        if (collectionIndex == graph.length - 1) {
+            predicate = createPredicate(from, comparison, subqueryManager, misc);
+        } else {
+            var selector = String.join(".", Arrays.copyOfRange(graph, collectionIndex + 1, graph.length));
+            var nested = new ComparisonNode(comparison.getOperator(), selector, comparison.getArguments());
+            predicate = createPredicate(nested, from, subqueryManager, misc);
+        }
+
+        subquery.where(predicate);
+        return entityManager.getCriteriaBuilder().exists(subquery);
     }
 
     /**
@@ -172,7 +330,7 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
                 log.trace("Create a join between {} and {}.", previousClass, classMetadata.getJavaType().getName());
 
                 if (root instanceof From<?, ?> from) {
-                    root = from.join(property);
+                    root = entityManager.getJoinRegistry().join(from, property, JoinType.INNER);
                 } else {
                     log.warn("Root is not a From<?, ?> type, cannot create join for property {}. Using get() instead.", property);
                     root = root.get(property);
@@ -205,16 +363,16 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
             case GREATER_THAN_OR_EQUAL -> greaterThanOrEqualPredicate(propertyPath, operator, manager, arguments);
             case LESS_THAN -> lessThanPredicate(propertyPath, operator, arguments, manager);
             case LESS_THAN_OR_EQUAL -> lessThanOrEqualPredicate(propertyPath, operator, arguments, manager);
-            case IN -> createIn(propertyPath, arguments);
+            case IN -> createIn(propertyPath, arguments, manager);
             case NOT_IN -> createNotIn(propertyPath, arguments, manager);
+            case ILIKE -> createLike((Expression<String>) propertyPath, likeArgument(operator, arguments.getFirst()), manager);
+            case NOT_ILIKE -> createNotLike((Expression<String>) propertyPath, likeArgument(operator, arguments.getFirst()), manager);
+            case BETWEEN -> betweenPredicate(propertyPath, operator, arguments, manager);
         };
     }
 
     private Predicate lessThanOrEqualPredicate(Expression<?> propertyPath, ComparisonOperator operator, List<?> arguments, EntityManagerAdapter manager) {
         var argument = arguments.getFirst();
-        if (argument instanceof Date casted) {
-            return createBetweenThan((Expression<? extends Date>) propertyPath, START_DATE, casted, manager);
-        }
         if (argument instanceof Number casted) {
             return createLessEqual((Expression<? extends Number>) propertyPath, casted, manager);
         }
@@ -226,10 +384,6 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
 
     private Predicate lessThanPredicate(Expression<?> propertyPath, ComparisonOperator operator, List<?> arguments, EntityManagerAdapter manager) {
         var argument = arguments.getFirst();
-        if (argument instanceof Date casted) {
-            int days = -1;
-            return createBetweenThan((Expression<? extends Date>) propertyPath, START_DATE, modifyDate(casted, days), manager);
-        }
         if (argument instanceof Number casted) {
             return createLessThan((Expression<? extends Number>) propertyPath, casted, manager);
         }
@@ -241,9 +395,6 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
 
     private Predicate greaterThanOrEqualPredicate(Expression<?> propertyPath, ComparisonOperator operator, EntityManagerAdapter manager, List<?> arguments) {
         var argument = arguments.getFirst();
-        if (argument instanceof Date casted) {
-            return createBetweenThan((Expression<? extends Date>) propertyPath, casted, END_DATE, manager);
-        }
         if (argument instanceof Number casted) {
             return createGreaterEqual((Expression<? extends Number>) propertyPath, casted, manager);
         }
@@ -255,10 +406,6 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
 
     private Predicate greaterThanPredicate(Expression<?> propertyPath, ComparisonOperator operator, List<?> arguments, EntityManagerAdapter manager) {
         var argument = arguments.getFirst();
-        if (argument instanceof Date casted) {
-            int days = 1;
-            return createBetweenThan((Expression<? extends Date>) propertyPath, modifyDate(casted, days), END_DATE, manager);
-        }
         if (argument instanceof Number casted) {
             return createGreaterThan((Expression<? extends Number>) propertyPath, casted, manager);
         }
@@ -270,8 +417,9 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
 
     protected Predicate notEqualPredicate(Expression<?> propertyPath, List<?> arguments, EntityManagerAdapter manager) {
         Object argument = arguments.getFirst();
-        if (argument instanceof String casted) {
-            return createNotLike((Expression<String>) propertyPath, casted, manager);
+        if (argument instanceof String casted && isLikeCompared(casted)) {
+            var builder = manager.getCriteriaBuilder();
+            return builder.not(createWildcardLike((Expression<String>) propertyPath, casted, manager));
         }
         if (isNullArgument(argument)) {
             return createIsNotNull(propertyPath, manager);
@@ -281,8 +429,8 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
 
     protected Predicate equalPredicate(Expression<?> propertyPath, List<?> arguments, EntityManagerAdapter manager) {
         var argument = arguments.getFirst();
-        if (argument instanceof String casted) {
-            return createLike((Expression<String>) propertyPath, casted, manager);
+        if (argument instanceof String casted && isLikeCompared(casted)) {
+            return createWildcardLike((Expression<String>) propertyPath, casted, manager);
         }
         if (isNullArgument(argument)) {
             return createIsNull(propertyPath, manager);
@@ -290,6 +438,83 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
         return createEqual(propertyPath, argument, manager);
     }
 
+    private Predicate betweenPredicate(Expression<?> propertyPath, ComparisonOperator operator, List<?> arguments, EntityManagerAdapter manager) {
+        if (arguments.size() != 2) {
+            throw new IllegalArgumentException("Operator " + operator + " requires exactly two arguments, got " + arguments.size());
+        }
+        var lower = arguments.get(0);
+        var upper = arguments.get(1);
+        if (lower instanceof Comparable lowerCasted && upper instanceof Comparable upperCasted) {
+            return createBetween((Expression<? extends Comparable>) propertyPath, lowerCasted, upperCasted, manager);
+        }
+        throw new IllegalArgumentException(buildNotComparableMessage(operator, lower instanceof Comparable ? upper : lower));
+    }
+
+    /**
+     * Apply the range of a "between" whose upper bound is a whole day: from the lower bound, inclusive, to the start
+     * of the day after the upper bound, exclusive.
+     */
+    private Predicate createDayRange(Expression<?> propertyPath, ComparisonOperator operator, Object lower, Object nextDay, EntityManagerAdapter manager) {
+        if (lower instanceof Comparable lowerCasted && nextDay instanceof Comparable nextDayCasted) {
+            var path = (Expression<? extends Comparable>) propertyPath;
+            return manager.getCriteriaBuilder().and(
+                    createGreaterEqualComparable(path, lowerCasted, manager),
+                    createLessThanComparable(path, nextDayCasted, manager)
+            );
+        }
+        throw new IllegalArgumentException(buildNotComparableMessage(operator, lower instanceof Comparable ? nextDay : lower));
+    }
+
+    /**
+     * Verifies if the operator compares a date-time property with the end of the day of a date argument, that is
+     * {@code >} and {@code <=}, see {@link #nextDayOfDateBound}. The other comparisons start at the day, which the
+     * date argument already is.
+     */
+    public static boolean isDayBoundOperator(ComparisonOperator operator) {
+        return RSQLOperators.GREATER_THAN.equals(operator) || RSQLOperators.LESS_THAN_OR_EQUAL.equals(operator);
+    }
+
+    /**
+     * Gets the start of the day after a date bound of a date-time property, when the bound is a date without time,
+     * so that the upper bound of a "between", {@code <=} and {@code >} include or exclude the whole day instead of
+     * stopping at its midnight: {@code >2024-06-30} is {@code >=2024-07-01T00:00} and {@code <=2024-06-30} is
+     * {@code <2024-07-01T00:00}.
+     *
+     * @param upper  the argument, as given
+     * @param type   the type of the property
+     * @param parser the parser of the arguments
+     * @return the start of the next day, parsed to the type of the property, or {@code null} if the bound is not a
+     * date or the property is not a date-time
+     */
+    public static Object nextDayOfDateBound(String upper, Class<?> type, ArgumentParser parser) {
+        if (!DATE_TIME_TYPES.contains(type) && !Date.class.isAssignableFrom(type)) {
+            return null;
+        }
+        LocalDate date;
+        try {
+            date = parser.parse(upper, LocalDate.class);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return parser.parse(date.plusDays(1).toString(), type);
+    }
+
+    /**
+     * Apply a "between" constraint to the property path, both bounds are inclusive.
+     *
+     * @param propertyPath  Property path that we want to compare.
+     * @param lower         Lower bound.
+     * @param upper         Upper bound.
+     * @param manager       JPA EntityManager.
+     * @return Predicate a predicate representation.
+     */
+    protected <Y extends Comparable<? super Y>> Predicate createBetween(Expression<? extends Y> propertyPath, Y lower, Y upper, EntityManagerAdapter manager) {
+        var builder = manager.getCriteriaBuilder();
+        return manager.isParameterized()
+                ? builder.between(propertyPath, manager.parameter(lower), manager.parameter(upper))
+                : builder.between(propertyPath, lower, upper);
+    }
+
     /**
      * Creates the between than.
      *
@@ -298,10 +523,63 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      * @param end the argument
      * @param manager the manager
      * @return the predicate
+     * @deprecated use {@link #createBetween}, no longer called by this builder.
      */
+    @Deprecated
     protected Predicate createBetweenThan(Expression<? extends Date> propertyPath, Date start, Date end, EntityManagerAdapter manager) {
-        CriteriaBuilder builder = manager.getCriteriaBuilder();
-        return builder.between(propertyPath, start, end);
+        return createBetween(propertyPath, start, end, manager);
+    }
+
+    /**
+     * Apply the "like" constraint of a string equality, see {@link #isLikeCompared}. Properties annotated with
+     * {@link SearchMatch} and the {@link CaseStrategy#COLLATION collation} case strategy are compared as is, so that an
+     * anchored pattern like {@code abc*} can use an index, the others are compared case-insensitively with
+     * {@link #createLike}.
+     *
+     * @param propertyPath  Property path that we want to compare.
+     * @param argument      Argument, with or without wildcards
+     * @param manager       JPA EntityManager.
+     * @return Predicate a predicate representation.
+     */
+    protected Predicate createWildcardLike(Expression<String> propertyPath, String argument, EntityManagerAdapter manager) {
+        if (!hasCollationCase(propertyPath)) {
+            return createLike(propertyPath, argument, manager);
+        }
+        var like = argument.replace(LIKE_WILDCARD, '%');
+        var builder = manager.getCriteriaBuilder();
+        return manager.isParameterized()
+                ? builder.like(propertyPath, manager.parameter(like))
+                : builder.like(propertyPath, like);
+    }
+
+    /**
+     * Verifies if a string argument of {@code ==} or {@code !=} is compared with a like, that is, it has a wildcard or
+     * {@link #exactStringEquality exact string equality} is disabled.
+     */
+    public boolean isLikeCompared(String argument) {
+        return !exactStringEquality || hasWildcard(argument);
+    }
+
+    protected boolean hasWildcard(String argument) {
+        return argument.indexOf(LIKE_WILDCARD) >= 0;
+    }
+
+    /**
+     * Verifies if the property of the path is annotated with the {@link CaseStrategy#COLLATION collation} case strategy.
+     */
+    protected static boolean hasCollationCase(Expression<?> propertyPath) {
+        return propertyPath instanceof Path<?> path
+                && path.getModel() instanceof Attribute<?, ?> attribute
+                && hasCollationCase(attribute);
+    }
+
+    /**
+     * Verifies if the attribute is annotated with the {@link CaseStrategy#COLLATION collation} case strategy.
+     */
+    public static boolean hasCollationCase(Attribute<?, ?> attribute) {
+        if (attribute == null || !(attribute.getJavaMember() instanceof AnnotatedElement member)) return false;
+        var match = member.getAnnotation(SearchMatch.class);
+        return match != null && match.caseStrategy() == CaseStrategy.COLLATION;
     }
 
     /**
@@ -316,7 +594,9 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
     protected Predicate createLike(Expression<String> propertyPath, String argument, EntityManagerAdapter manager) {
         var like = argument.replace(LIKE_WILDCARD, '%');
         var builder = manager.getCriteriaBuilder();
-        return builder.like(builder.lower(propertyPath), like.toLowerCase());
+        return manager.isParameterized()
+                ? builder.like(builder.lower(propertyPath), manager.parameter(like.toLowerCase()))
+                : builder.like(builder.lower(propertyPath), like.toLowerCase());
     }
 
     /**
@@ -341,7 +621,9 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      */
     protected Predicate createEqual(Expression<?> propertyPath, Object argument, EntityManagerAdapter manager) {
         var builder = manager.getCriteriaBuilder();
-        return builder.equal(propertyPath, argument);
+        return manager.isParameterized()
+                ? builder.equal(propertyPath, manager.parameter(argument))
+                : builder.equal(propertyPath, argument);
     }
 
     /**
@@ -354,7 +636,9 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      */
     protected Predicate createNotEqual(Expression<?> propertyPath, Object argument, EntityManagerAdapter manager) {
         var builder = manager.getCriteriaBuilder();
-        return builder.notEqual(propertyPath, argument);
+        return manager.isParameterized()
+                ? builder.notEqual(propertyPath, manager.parameter(argument))
+                : builder.notEqual(propertyPath, argument);
     }
 
     /**
@@ -393,7 +677,9 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      */
     protected Predicate createGreaterThan(Expression<? extends Number> propertyPath, Number argument, EntityManagerAdapter manager) {
         var builder = manager.getCriteriaBuilder();
-        return builder.gt(propertyPath, argument);
+        return manager.isParameterized()
+                ? builder.gt(propertyPath, manager.parameter(argument))
+                : builder.gt(propertyPath, argument);
     }
 
     /**
@@ -406,7 +692,9 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      */
     protected <Y extends Comparable<? super Y>> Predicate createGreaterThanComparable(Expression<? extends Y> propertyPath, Y argument, EntityManagerAdapter manager) {
         var builder = manager.getCriteriaBuilder();
-        return builder.greaterThan(propertyPath, argument);
+        return manager.isParameterized()
+                ? builder.greaterThan(propertyPath, manager.parameter(argument))
+                : builder.greaterThan(propertyPath, argument);
     }
 
     /**
@@ -419,7 +707,9 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      */
     protected Predicate createGreaterEqual(Expression<? extends Number> propertyPath, Number argument, EntityManagerAdapter manager) {
         var builder = manager.getCriteriaBuilder();
-        return builder.ge(propertyPath, argument);
+        return manager.isParameterized()
+                ? builder.ge(propertyPath, manager.parameter(argument))
+                : builder.ge(propertyPath, argument);
     }
 
     /**
@@ -432,7 +722,9 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      */
     protected <Y extends Comparable<? super Y>> Predicate createGreaterEqualComparable(Expression<? extends Y> propertyPath, Y argument, EntityManagerAdapter manager) {
         var builder = manager.getCriteriaBuilder();
-        return builder.greaterThanOrEqualTo(propertyPath, argument);
+        return manager.isParameterized()
+                ? builder.greaterThanOrEqualTo(propertyPath, manager.parameter(argument))
+                : builder.greaterThanOrEqualTo(propertyPath, argument);
     }
 
     /**
@@ -445,7 +737,9 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      */
     protected Predicate createLessThan(Expression<? extends Number> propertyPath, Number argument, EntityManagerAdapter manager) {
         var builder = manager.getCriteriaBuilder();
-        return builder.lt(propertyPath, argument);
+        return manager.isParameterized()
+                ? builder.lt(propertyPath, manager.parameter(argument))
+                : builder.lt(propertyPath, argument);
     }
 
     /**
@@ -458,7 +752,9 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      */
     protected <Y extends Comparable<? super Y>> Predicate createLessThanComparable(Expression<? extends Y> propertyPath, Y argument, EntityManagerAdapter manager) {
         var builder = manager.getCriteriaBuilder();
-        return builder.lessThan(propertyPath, argument);
+        return manager.isParameterized()
+                ? builder.lessThan(propertyPath, manager.parameter(argument))
+                : builder.lessThan(propertyPath, argument);
     }
 
     /**
@@ -471,7 +767,9 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      */
     protected Predicate createLessEqual(Expression<? extends Number> propertyPath, Number argument, EntityManagerAdapter manager) {
         var builder = manager.getCriteriaBuilder();
-        return builder.le(propertyPath, argument);
+        return manager.isParameterized()
+                ? builder.le(propertyPath, manager.parameter(argument))
+                : builder.le(propertyPath, argument);
     }
 
     /**
@@ -484,7 +782,36 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      */
     protected <Y extends Comparable<? super Y>> Predicate createLessEqualComparable(Expression<? extends Y> propertyPath, Y argument, EntityManagerAdapter manager) {
         var builder = manager.getCriteriaBuilder();
-        return builder.lessThanOrEqualTo(propertyPath, argument);
+        return manager.isParameterized()
+                ? builder.lessThanOrEqualTo(propertyPath, manager.parameter(argument))
+                : builder.lessThanOrEqualTo(propertyPath, argument);
+    }
+
+    /**
+     * Apply a "in" constraint to the property path. The list is bound according to the IN-list settings of this
+     * builder: as a single array argument if {@link #getInListArrayFunction() an array function} is set, otherwise
+     * padded to a power of two and split into OR'd chunks of at most {@link #getInListChunkSize()} values.
+     *
+     * @param propertyPath  Property path that we want to compare.
+     * @param arguments     List of arguments.
+     * @param manager       JPA EntityManager.
+     * @return Predicate a predicate representation.
+     */
+    protected Predicate createIn(Expression<?> propertyPath, List<?> arguments, EntityManagerAdapter manager) {
+        if (inListArrayFunction != null && !arguments.isEmpty() && manager.isParameterized()) {
+            return createArrayIn(propertyPath, arguments, manager);
+        }
+        if (arguments.size() <= inListChunkSize) {
+            return createInList(propertyPath, padInList(arguments), manager);
+        }
+
+        var chunks = new ArrayList<Predicate>();
+        for (int from = 0; from < arguments.size(); from += inListChunkSize) {
+            var chunk = arguments.subList(from, Math.min(from + inListChunkSize, arguments.size()));
+            chunks.add(createInList(propertyPath, padInList(chunk), manager));
+        }
+        log.trace("Split an in list of {} values into {} chunks.", arguments.size(), chunks.size());
+        return manager.getCriteriaBuilder().or(chunks.toArray(new Predicate[0]));
     }
 
     /**
@@ -493,11 +820,106 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      * @param propertyPath  Property path that we want to compare.
      * @param arguments     List of arguments.
      * @return Predicate a predicate representation.
+     * @deprecated use {@link #createIn(Expression, List, EntityManagerAdapter)}, which applies the in list settings
+     * of this builder and binds the values as parameters; no longer called by this builder.
      */
+    @Deprecated
     protected Predicate createIn(Expression<?> propertyPath, List<?> arguments) {
         return propertyPath.in(arguments);
     }
 
+    private Predicate createInList(Expression<?> propertyPath, List<?> arguments, EntityManagerAdapter manager) {
+        if (!manager.isParameterized()) {
+            return propertyPath.in(arguments);
+        }
+        var parameters = new Expression<?>[arguments.size()];
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = manager.parameter(arguments.get(i));
+        }
+        return propertyPath.in(parameters);
+    }
+
+    /**
+     * Apply a "in" constraint that passes the whole list as one array argument of the
+     * {@link #getInListArrayFunction() array function} of the provider.
+     *
+     * @param propertyPath  Property path that we want to compare.
+     * @param arguments     List of arguments, not empty.
+     * @param manager       JPA EntityManager.
+     * @return Predicate a predicate representation.
+     */
+    protected Predicate createArrayIn(Expression<?> propertyPath, List<?> arguments, EntityManagerAdapter manager) {
+        var builder = manager.getCriteriaBuilder();
+        return builder.isTrue(builder.function(inListArrayFunction, Boolean.class, createArrayArgument(toArray(arguments), manager), propertyPath));
+    }
+
+    /**
+     * Copies the values of an in list to the array bound to the {@link #getInListArrayFunction() array function},
+     * typed after the first non-null value.
+     */
+    public static Object[] toArray(List<?> arguments) {
+        var elementType = arguments.stream().filter(Objects::nonNull).findFirst().<Class<?>>map(Object::getClass).orElse(Object.class);
+        return arguments.toArray(size -> (Object[]) Array.newInstance(elementType, size));
+    }
+
+    /**
+     * Creates the expression of the array argument of {@link #createArrayIn}. By default the array is bound as a
+     * single parameter, never as a criteria literal, which providers may inline in the SQL.
+     *
+     * @param array     The values of the in list, typed after the first non-null value.
+     * @param manager   JPA EntityManager.
+     * @return Expression the array expression.
+     */
+    protected Expression<?> createArrayArgument(Object[] array, EntityManagerAdapter manager) {
+        return manager.parameter(array);
+    }
+
+    /**
+     * Pads an in list to the next power of two by repeating its last value, so that lists of similar sizes share
+     * the same SQL and the same prepared statement.
+     *
+     * @param arguments List of arguments.
+     * @return the padded list, or the list itself if padding is disabled or not needed.
+     */
+    public List<?> padInList(List<?> arguments) {
+        var size = paddedSize(arguments.size());
+        if (size <= arguments.size()) {
+            return arguments;
+        }
+        var padded = new ArrayList<Object>(size);
+        padded.addAll(arguments);
+        var last = arguments.getLast();
+        while (padded.size() < size) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    private int paddedSize(int size) {
+        if (!inListPadding || size < 2) {
+            return size;
+        }
+        return Math.max(size, Math.min(Integer.highestOneBit(size - 1) << 1, inListChunkSize));
+    }
+
+    /**
+     * Describes how an in list of the given size is bound by a {@link EntityManagerAdapter#isParameterized()
+     * parameterized} adapter with the current settings: as an array argument, as a padded list, or as padded chunks.
+     * In lists with the same layout build the same predicate with the same parameters, whatever their size.
+     *
+     * @param size the number of values of the list
+     * @return the layout of the list
+     */
+    public String inListLayout(int size) {
+        if (inListArrayFunction != null && size > 0) {
+            return "a:" + inListArrayFunction;
+        }
+        if (size <= inListChunkSize) {
+            return String.valueOf(paddedSize(size));
+        }
+        return (size / inListChunkSize) + "x" + inListChunkSize + "+" + paddedSize(size % inListChunkSize);
+    }
+
     /**
      * Apply a "not in" (out) constraint to the property path.
      *
@@ -508,7 +930,7 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      */
     protected Predicate createNotIn(Expression<?> propertyPath, List<?> arguments, EntityManagerAdapter manager) {
         var builder = manager.getCriteriaBuilder();
-        return builder.not(createIn(propertyPath, arguments));
+        return builder.not(createIn(propertyPath, arguments, manager));
     }
 
     /**
@@ -569,13 +991,28 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
     }
 
 
+    /**
+     * Gets the pattern of a like operator, which only applies to string properties.
+     *
+     * @throws IllegalArgumentException if the argument was not parsed as a string
+     */
+    public String likeArgument(ComparisonOperator operator, Object argument) {
+        if (argument instanceof String pattern) {
+            return pattern;
+        }
+        var type = argument == null ? Object.class : argument.getClass();
+        throw new IllegalArgumentException(String.format("Invalid type for like operator: %s type: %s must be a String", operator, type.getName()));
+    }
+
     /**
      * Get date regarding the operation (less then or greater than)
      *
      * @param date Date to be modified
      * @param days Days to be added or removed form argument;
      *@return Date modified date
+     * @deprecated date comparisons are no longer shifted by a day, no longer called by this builder.
      */
+    @Deprecated
     protected Date modifyDate(Date date, int days) {
         Calendar c = Calendar.getInstance();
         c.setTime(date);
@@ -590,7 +1027,8 @@ public class DefaultPredicateBuilder implements PredicateBuilder {
      * @param argument actual argument produced From<?,?> the ArgumentParser
      * @return Error message for use in an Exception
      */
-    protected String buildNotComparableMessage(ComparisonOperator operator, Object argument) {
-        return String.format("Invalid type for comparison operator: %s type: %s must implement Comparable<%s>", operator, argument.getClass().getName(), argument.getClass().getSimpleName());
+    public String buildNotComparableMessage(ComparisonOperator operator, Object argument) {
+        var type = argument == null ? Object.class : argument.getClass();
+        return String.format("Invalid type for comparison operator: %s type: %s must implement Comparable<%s>", operator, type.getName(), type.getSimpleName());
     }
 }
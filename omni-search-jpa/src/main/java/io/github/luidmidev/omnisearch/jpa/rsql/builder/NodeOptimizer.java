@@ -0,0 +1,28 @@
+package io.github.luidmidev.omnisearch.jpa.rsql.builder;
+
+import cz.jirutka.rsql.parser.ast.Node;
+import io.github.luidmidev.omnisearch.jpa.rsql.EntityManagerAdapter;
+
+import java.util.Optional;
+
+/**
+ * Rewrites the RSQL AST before it is turned into predicates.
+ */
+public interface NodeOptimizer {
+
+    /**
+     * Shared {@link DefaultNodeOptimizer}, which holds no state between calls.
+     */
+    NodeOptimizer DEFAULT = new DefaultNodeOptimizer();
+
+    /**
+     * Rewrite the RSQL AST node into an equivalent, cheaper one.
+     *
+     * @param node    RSQL AST node.
+     * @param entity  The main entity of the query.
+     * @param manager JPA EntityManager.
+     * @param tools   Builder tools facade.
+     * @return the rewritten node, or empty if the conditions can never be satisfied.
+     */
+    Optional<Node> optimize(Node node, Class<?> entity, EntityManagerAdapter manager, BuilderTools tools);
+}
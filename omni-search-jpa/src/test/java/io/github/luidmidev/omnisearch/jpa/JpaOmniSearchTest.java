@@ -1,15 +1,54 @@
 package io.github.luidmidev.omnisearch.jpa;
 
+import io.github.luidmidev.omnisearch.core.OmniSearchBaseOptions;
 import io.github.luidmidev.omnisearch.core.OmniSearchOptions;
+import io.github.luidmidev.omnisearch.core.SearchFingerprint;
+import io.github.luidmidev.omnisearch.core.SearchRequest;
+import io.github.luidmidev.omnisearch.core.cache.CachingOmniSearch;
+import io.github.luidmidev.omnisearch.core.cache.CoalescingOmniSearch;
+import io.github.luidmidev.omnisearch.core.cache.InMemorySearchResultStore;
+import io.github.luidmidev.omnisearch.core.metrics.HistogramSearchMetrics;
+import io.github.luidmidev.omnisearch.core.metrics.LatencyHistogram;
+import io.github.luidmidev.omnisearch.core.metrics.SearchPhase;
+import io.github.luidmidev.omnisearch.core.rsql.CachingRsqlParser;
+import io.github.luidmidev.omnisearch.core.schemas.CacheStats;
+import io.github.luidmidev.omnisearch.core.schemas.CountMode;
+import io.github.luidmidev.omnisearch.core.schemas.KeysetPagination;
+import io.github.luidmidev.omnisearch.core.schemas.MatchMode;
+import io.github.luidmidev.omnisearch.core.schemas.Sort;
 import cz.jirutka.rsql.parser.RSQLParser;
 import io.github.luidmidev.omnisearch.jpa.entities.*;
+import io.github.luidmidev.omnisearch.jpa.rsql.ArgumentFormatException;
+import io.github.luidmidev.omnisearch.jpa.rsql.EntityManagerAdapter;
+import io.github.luidmidev.omnisearch.jpa.rsql.QueryParameters;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.BuilderTools;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.CollectionStrategy;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.DefaultBuilderTools;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.DefaultNodeOptimizer;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.DefaultPredicateBuilder;
+import io.github.luidmidev.omnisearch.jpa.rsql.builder.NodeOptimizer;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.*;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,12 +56,14 @@ import static org.junit.jupiter.api.Assertions.*;
 class JpaOmniSearchTest {
 
     private EntityManagerFactory emf;
+    private EntityManagerFactory templateEmf;
     private EntityManager em;
     private JpaOmniSearch omniSearch;
 
     @BeforeAll
     void init() {
         emf = Persistence.createEntityManagerFactory("test-pu");
+        templateEmf = Persistence.createEntityManagerFactory("template-cache-pu");
     }
 
     @BeforeEach
@@ -35,6 +76,7 @@ class JpaOmniSearchTest {
                 .email("alice@example.com")
                 .active(true)
                 .level(User.Level.HIGH)
+                .createdAt(LocalDateTime.of(2024, 1, 15, 10, 0))
                 .roles(Set.of(User.Role.USER, User.Role.ADMIN))
                 .contacts(Set.of(
                         Contacts.builder()
@@ -54,6 +96,7 @@ class JpaOmniSearchTest {
                 .email("bob@example.com")
                 .active(false)
                 .level(User.Level.MEDIUM)
+                .createdAt(LocalDateTime.of(2024, 6, 30, 23, 30))
                 .roles(Set.of(User.Role.GUEST))
                 .build()
         );
@@ -63,6 +106,7 @@ class JpaOmniSearchTest {
                 .email("charlie@example.net")
                 .active(true)
                 .level(User.Level.LOW)
+                .createdAt(LocalDateTime.of(2025, 2, 1, 8, 0))
                 .roles(Set.of(User.Role.USER))
                 .build()
         );
@@ -81,12 +125,16 @@ class JpaOmniSearchTest {
         for (User user : users) {
             em.remove(user);
         }
+        em.flush();
+        em.createQuery("DELETE FROM Country").executeUpdate();
+        em.createQuery("DELETE FROM Countinent").executeUpdate();
         em.getTransaction().commit();
         em.close();
     }
 
     @AfterAll
     void close() {
+        templateEmf.close();
         emf.close();
     }
 
@@ -169,6 +217,938 @@ class JpaOmniSearchTest {
         assertTrue(result.getFirst().getEmail().contains("example.com"));
     }
 
+    @Test
+    void testSearchPlanListsSearchableAttributes() {
+
+        var plan = JpaSearchPlan.of(em.getMetamodel(), User.class);
+
+        assertEquals(List.of("id", "name", "email", "active", "level", "roles"), plan.paths());
+        assertSame(plan, JpaSearchPlan.of(em.getMetamodel(), User.class));
+        assertNotSame(plan, JpaSearchPlan.of(templateEmf.getMetamodel(), User.class));
+    }
+
+    @Test
+    void testSearchTermIsClassifiedOnce() {
+        var integer = SearchTerm.of("300");
+        assertEquals(300, integer.numberOf(Integer.class));
+        assertEquals(300L, integer.numberOf(Long.class));
+        assertNull(integer.numberOf(Byte.class));
+        assertNull(integer.bool());
+
+        var decimal = SearchTerm.of("-1.5");
+        assertNull(decimal.numberOf(Long.class));
+        assertEquals(-1.5, decimal.numberOf(Double.class));
+
+        assertEquals(Year.of(2024), SearchTerm.of("2024").year());
+        assertEquals(LocalDate.of(2024, 2, 29), SearchTerm.of("2024-02-29").date());
+        assertNull(SearchTerm.of("2023-02-29").date());
+        assertEquals(Boolean.FALSE, SearchTerm.of("False").bool());
+        assertEquals(Set.of(User.Level.HIGH), SearchTerm.of("hig").enumCandidates(User.Level.class));
+
+        assertTrue(omniSearch.search(User.class, options -> options.search("-1.5")).isEmpty());
+    }
+
+    @Test
+    void testSearchMatchesEveryTerm() {
+        var tools = new DefaultBuilderTools();
+        tools.setMaxSearchTermLength(12);
+        var terms = SearchTerm.tokenize("alice  \"example com\" alice " + "x".repeat(100), MatchMode.CONTAINS, tools);
+        assertEquals(List.of("alice", "example com"), terms.stream().map(SearchTerm::value).toList());
+        tools.setMaxSearchTerms(1);
+        assertEquals(List.of("alice"), SearchTerm.tokenize("alice example", MatchMode.CONTAINS, tools).stream().map(SearchTerm::value).toList());
+
+        // a truncated term would never equal its column, an over-long term is ignored instead
+        tools.setMaxSearchTerms(BuilderTools.DEFAULT_MAX_SEARCH_TERMS);
+        tools.setMaxSearchTermLength(3);
+        assertEquals(1, new JpaOmniSearch(em, tools).count(User.class, options -> options.search("bob alice").searchMode(MatchMode.EXACT)));
+
+        var result = omniSearch.search(User.class, options -> options.search("alice example.com"));
+        assertEquals(List.of("Alice"), result.stream().map(User::getName).toList());
+
+        assertEquals(2, omniSearch.count(User.class, options -> options.search("example true")));
+        assertEquals(0, omniSearch.count(User.class, options -> options.search("bob true")));
+    }
+
+    @Test
+    void testSearchMatchModes() {
+        assertEquals(1, omniSearch.count(User.class, options -> options.search("ali").searchMode(MatchMode.PREFIX)));
+        assertEquals(0, omniSearch.count(User.class, options -> options.search("lice").searchMode(MatchMode.PREFIX)));
+        assertEquals(1, omniSearch.count(User.class, options -> options.search("lice")));
+        assertEquals(1, omniSearch.count(User.class, options -> options.search("BOB").searchMode(MatchMode.EXACT)));
+        assertEquals(0, omniSearch.count(User.class, options -> options.search("_")));
+
+        assertEquals(1, omniSearch.count(User.class, options -> options.search("Last1").joins("contacts")));
+        assertEquals(0, omniSearch.count(User.class, options -> options.search("last1").joins("contacts")));
+        assertEquals(0, omniSearch.count(User.class, options -> options.search("Last").joins("contacts")));
+    }
+
+    @Test
+    void testSearchKeysetWalksAllPages() {
+
+        var options = new OmniSearchOptions()
+                .sort(new Sort.Order("name", false));
+
+        var first = omniSearch.searchKeyset(User.class, options, KeysetPagination.first(2));
+        assertEquals(List.of("Dave", "Bob"), first.content().stream().map(User::getName).toList());
+        assertTrue(first.hasNext());
+
+        var second = omniSearch.searchKeyset(User.class, options, first.next(2));
+        assertEquals(List.of("Alice"), second.content().stream().map(User::getName).toList());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void testSearchKeysetSeeksPastNullKeysAndRejectsAnotherSort() {
+        persistHouses();
+
+        // Eve and Frank have no creation date, the null keys come last whatever the direction
+        var options = new OmniSearchOptions()
+                .sort(new Sort.Order("createdAt", false));
+
+        var names = new ArrayList<String>();
+        var pagination = KeysetPagination.first(2);
+        var pages = 0;
+        while (pagination != null) {
+            var page = omniSearch.searchKeyset(User.class, options, pagination);
+            page.content().forEach(user -> names.add(user.getName()));
+            pagination = page.hasNext() ? page.next(2) : null;
+            pages++;
+        }
+        assertEquals(List.of("Dave", "Bob", "Alice", "Eve", "Frank"), names);
+        assertEquals(3, pages);
+
+        var first = omniSearch.searchKeyset(User.class, options, KeysetPagination.first(2));
+        var byName = new OmniSearchOptions().sort(new Sort.Order("name", false));
+        var ascending = new OmniSearchOptions().sort(new Sort.Order("createdAt", true));
+        assertThrows(IllegalArgumentException.class, () -> omniSearch.searchKeyset(User.class, byName, first.next(2)));
+        assertThrows(IllegalArgumentException.class, () -> omniSearch.searchKeyset(User.class, ascending, first.next(2)));
+    }
+
+    @Test
+    void testStreamDetachesConsumedEntities() {
+
+        omniSearch.setStreamDetachInterval(1);
+        var options = new OmniSearchOptions()
+                .sort(new Sort.Order("name", true));
+
+        try (var stream = omniSearch.stream(User.class, options)) {
+            var users = stream.toList();
+            assertEquals(List.of("Alice", "Bob", "Dave"), users.stream().map(User::getName).toList());
+            assertTrue(users.stream().noneMatch(em::contains));
+        }
+    }
+
+    @Test
+    void testSearchPageWithWindowCount() {
+
+        omniSearch.setWindowCountFunction(TestFunctionContributor.COUNT_OVER);
+        var options = new OmniSearchOptions()
+                .sort(new Sort.Order("name", true))
+                .pagination(0, 2);
+
+        var page = omniSearch.searchPage(User.class, options);
+        assertEquals(List.of("Alice", "Bob"), page.content().stream().map(User::getName).toList());
+        assertEquals(3, page.total());
+        assertEquals(2, page.getTotalPages());
+    }
+
+    @Test
+    void testSearchPageDerivesTotalFromLastPage() {
+
+        var options = new OmniSearchOptions()
+                .sort(new Sort.Order("name", true))
+                .pagination(1, 2);
+
+        var page = omniSearch.searchPage(User.class, options);
+        assertEquals(List.of("Dave"), page.content().stream().map(User::getName).toList());
+        assertEquals(3, page.total());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void testBoundedCount() {
+
+        assertEquals(2, omniSearch.count(User.class, options -> options.countMode(CountMode.bounded(2))));
+        assertEquals(3, omniSearch.count(User.class, options -> options.countMode(CountMode.bounded(10))));
+        assertEquals(1, omniSearch.count(User.class, options -> options.search("Alice").countMode(CountMode.bounded(10))));
+    }
+
+    @Test
+    void testApproximateCountFromTableStatistics() {
+
+        omniSearch.setCountEstimator(TableStatisticsCountEstimator.h2());
+
+        assertEquals(3, omniSearch.count(User.class, options -> options.countMode(CountMode.approximate())));
+        assertEquals(1, omniSearch.count(User.class, options -> options.search("Alice").countMode(CountMode.approximate())));
+    }
+
+    @Test
+    void testConditionsStringIsParsedOnce() {
+
+        var parser = new CachingRsqlParser(16);
+        var first = parser.parse("name==alice;email==*example.com*");
+        var second = parser.parse("  name==alice;email==*example.com*  ");
+
+        assertSame(first, second);
+        assertEquals(1, parser.stats().hits());
+        assertEquals(1, parser.stats().misses());
+
+        var options = new OmniSearchOptions()
+                .conditions("name==alice;email==*example.com*");
+
+        List<User> result = omniSearch.search(User.class, options);
+        assertEquals(1, result.size());
+        assertEquals("Alice", result.getFirst().getName());
+    }
+
+    @Test
+    void testConditionsAreOptimizedBeforePredicateConstruction() {
+
+        var optimizer = BuilderTools.DEFAULT.getNodeOptimizer();
+        var manager = new EntityManagerAdapter(em);
+        var parser = new RSQLParser();
+
+        var merged = optimizer.optimize(parser.parse("level==HIGH,(level==LOW,level==HIGH)"), User.class, manager, BuilderTools.DEFAULT);
+        assertEquals(Optional.of(parser.parse("level=in=(HIGH,LOW)")), merged);
+
+        var folded = optimizer.optimize(parser.parse("(active==true;name==Bob);active=in=(true)"), User.class, manager, BuilderTools.DEFAULT);
+        assertEquals(Optional.of(parser.parse("active==true;name==Bob")), folded);
+
+        var strings = optimizer.optimize(parser.parse("name==alice,name==bob"), User.class, manager, BuilderTools.DEFAULT);
+        assertEquals(Optional.of(parser.parse("name==alice,name==bob")), strings);
+
+        var predicates = new DefaultPredicateBuilder();
+        predicates.setExactStringEquality(true);
+        var exactTools = new DefaultBuilderTools();
+        exactTools.setPredicateBuilder(predicates);
+        var exactStrings = optimizer.optimize(parser.parse("name==alice,name==bob"), User.class, manager, exactTools);
+        assertEquals(Optional.of(parser.parse("name=in=(alice,bob)")), exactStrings);
+
+        var patterns = optimizer.optimize(parser.parse("name==ali*,name==bob"), User.class, manager, exactTools);
+        assertEquals(Optional.of(parser.parse("name==ali*,name==bob")), patterns);
+
+        var contradiction = parser.parse("level==HIGH;name==alice;level==LOW");
+        assertTrue(optimizer.optimize(contradiction, User.class, manager, BuilderTools.DEFAULT).isEmpty());
+        assertTrue(omniSearch.search(User.class, new OmniSearchOptions().conditions(contradiction)).isEmpty());
+        assertEquals(2, omniSearch.count(User.class, options -> options.conditions("level==HIGH,level==LOW")));
+
+        // two different strings may be equal under the collation of the column
+        var differentStrings = parser.parse("name==alice;name==Alice");
+        assertEquals(Optional.of(differentStrings), optimizer.optimize(differentStrings, User.class, manager, exactTools));
+        assertTrue(optimizer.optimize(parser.parse("name==alice;name!=alice"), User.class, manager, exactTools).isEmpty());
+
+        assertSame(NodeOptimizer.DEFAULT, BuilderTools.DEFAULT.getNodeOptimizer());
+        assertSame(NodeOptimizer.DEFAULT, new DefaultBuilderTools().getNodeOptimizer());
+    }
+
+    @Test
+    void testStringEqualityIsExactWhenEnabled() {
+        var predicates = new DefaultPredicateBuilder();
+        var tools = new DefaultBuilderTools();
+        tools.setPredicateBuilder(predicates);
+        var searches = List.of(new JpaOmniSearch(em, tools), new JpqlOmniSearch(em, tools));
+
+        for (var search : searches) {
+            assertEquals(1, search.count(User.class, options -> options.conditions("name==alice")));
+            assertEquals(2, search.count(User.class, options -> options.conditions("name!=ALICE")));
+        }
+
+        predicates.setExactStringEquality(true);
+        for (var search : searches) {
+            assertEquals(0, search.count(User.class, options -> options.conditions("name==alice")));
+            assertEquals(1, search.count(User.class, options -> options.conditions("name==Alice")));
+            assertEquals(2, search.count(User.class, options -> options.conditions("name!=Alice")));
+            assertEquals(1, search.count(User.class, options -> options.conditions("email==ALICE*")));
+            assertEquals(1, search.count(User.class, options -> options.conditions("name=ilike=alice")));
+            assertEquals(2, search.count(User.class, options -> options.conditions("name=nilike=ALI*")));
+        }
+    }
+
+    @Test
+    void testLikeOperatorsAndCollationComparedStrings() {
+        assertEquals(1, omniSearch.count(User.class, options -> options.conditions("name=ilike=alice")));
+        assertEquals(2, omniSearch.count(User.class, options -> options.conditions("name=nilike=ALI*")));
+        assertThrows(IllegalArgumentException.class, () -> omniSearch.count(User.class, options -> options.conditions("id=ilike=1")));
+        assertThrows(IllegalArgumentException.class, () -> omniSearch.count(User.class, options -> options.conditions("level=nilike=HIGH")));
+
+        assertEquals(1, omniSearch.count(User.class, options -> options.conditions("contacts.lastName==Last*")));
+        assertEquals(0, omniSearch.count(User.class, options -> options.conditions("contacts.lastName==last*")));
+        assertEquals(0, omniSearch.count(User.class, options -> options.conditions("contacts.lastName==last1")));
+    }
+
+    @Test
+    void testTemporalRangeComparisons() {
+        // a date argument compares whole days like =between=, Bob was created on 2024-06-30 at 23:30
+        for (var search : List.of(omniSearch, new JpqlOmniSearch(em))) {
+            assertEquals(1, search.count(User.class, options -> options.conditions("createdAt>2024-06-30")));
+            assertEquals(2, search.count(User.class, options -> options.conditions("createdAt>=2024-06-30")));
+            assertEquals(1, search.count(User.class, options -> options.conditions("createdAt<2024-06-30")));
+            assertEquals(2, search.count(User.class, options -> options.conditions("createdAt<=2024-06-30")));
+            assertEquals(2, search.count(User.class, options -> options.conditions("createdAt>'2024-06-30 23:00'")));
+            assertEquals(1, search.count(User.class, options -> options.conditions("createdAt<='2024-06-30 23:00'")));
+        }
+        assertEquals(2, omniSearch.count(User.class, options -> options.conditions("createdAt<='2024-06-30 23:30'")));
+        assertEquals(2, omniSearch.count(User.class, options -> options.conditions("createdAt=between=(2024-01-01,2024-12-31)")));
+        assertEquals(1, omniSearch.count(User.class, options -> options.conditions("createdAt=between=(2024-06-01,2025-01-31);active==false")));
+
+        // a date upper bound includes the whole day, Bob was created on 2024-06-30 at 23:30
+        assertEquals(2, omniSearch.count(User.class, options -> options.conditions("createdAt=between=(2024-01-15,2024-06-30)")));
+        assertEquals(1, omniSearch.count(User.class, options -> options.conditions("createdAt=between=(2024-01-01,'2024-06-30 23:00')")));
+        assertEquals(2, new JpqlOmniSearch(em).count(User.class, options -> options.conditions("createdAt=between=(2024-01-15,2024-06-30)")));
+
+        // the two forms of the upper bound build different queries
+        omniSearch.setTemplateCache(new QueryTemplateCache());
+        assertEquals(2, omniSearch.count(User.class, options -> options.conditions("createdAt=between=(2024-01-15,2024-06-30)")));
+        assertEquals(1, omniSearch.count(User.class, options -> options.conditions("createdAt=between=(2024-01-15,'2024-06-30 23:00')")));
+        assertEquals(1, omniSearch.count(User.class, options -> options.conditions("createdAt>2024-06-30")));
+        assertEquals(2, omniSearch.count(User.class, options -> options.conditions("createdAt>'2024-06-30 23:00'")));
+
+        assertThrows(IllegalArgumentException.class, () -> omniSearch.count(User.class, options -> options.conditions("createdAt=between=(2024-01-01)")));
+    }
+
+    @Test
+    void testInListsKeepStableSqlShapes() {
+        var ids = em.createQuery("SELECT u.id FROM User u ORDER BY u.id", Long.class).getResultList();
+        var first = ids.getFirst();
+        var last = ids.getLast();
+
+        var statements = new ArrayList<String>();
+        var sessionFactory = emf.unwrap(SessionFactory.class);
+        try (var session = sessionFactory.withOptions().statementInspector(sql -> {
+            statements.add(sql);
+            return sql;
+        }).openSession()) {
+            var predicates = new DefaultPredicateBuilder();
+            predicates.setInListChunkSize(4);
+            var tools = new DefaultBuilderTools();
+            tools.setPredicateBuilder(predicates);
+            var search = new JpaOmniSearch(session, tools);
+
+            assertEquals(3, search.count(User.class, options -> options.conditions("id=in=(" + first + "," + ids.get(1) + "," + last + ")")));
+            assertEquals(2, search.count(User.class, options -> options.conditions("id=in=(" + first + "," + last + ",-1,-2)")));
+            assertEquals(statements.get(0), statements.get(1));
+
+            assertEquals(3, search.count(User.class, options -> options.conditions("id=in=(-1,-2,-3,-4," + first + "," + ids.get(1) + "," + last + ")")));
+            assertEquals(2, statements.get(2).split("(?i) in ").length - 1);
+
+            assertEquals(1, search.count(User.class, options -> options.conditions("id=out=(" + first + "," + last + ",-1)")));
+
+            predicates.setInListArrayFunction(TestFunctionContributor.IN_ARRAY);
+            assertEquals(2, search.count(User.class, options -> options.conditions("id=in=(" + first + "," + last + ")")));
+            assertEquals(1, search.count(User.class, options -> options.conditions("id=in=(" + first + ",-1,-2,-3,-4,-5)")));
+            assertEquals(statements.get(4), statements.get(5));
+            assertTrue(statements.getLast().contains("array_contains(?,"));
+            assertFalse(statements.getLast().contains(" in "));
+
+            // the JPQL search applies the same settings
+            var jpqlSearch = new JpqlOmniSearch(session, tools);
+            statements.clear();
+            assertEquals(2, jpqlSearch.count(User.class, options -> options.conditions("id=in=(" + first + "," + last + ")")));
+            assertEquals(2, jpqlSearch.count(User.class, options -> options.conditions("id=out=(" + first + ",-1,-2,-3,-4,-5)")));
+            assertTrue(statements.getFirst().contains("array_contains(?,"));
+            assertFalse(statements.getFirst().contains(" in "));
+
+            predicates.setInListArrayFunction(null);
+            statements.clear();
+            assertEquals(3, jpqlSearch.count(User.class, options -> options.conditions("id=in=(" + first + "," + ids.get(1) + "," + last + ")")));
+            assertEquals(2, jpqlSearch.count(User.class, options -> options.conditions("id=in=(" + first + "," + last + ",-1,-2)")));
+            assertEquals(statements.get(0), statements.get(1));
+            assertEquals(3, jpqlSearch.count(User.class, options -> options.conditions("id=in=(-1,-2,-3,-4," + first + "," + ids.get(1) + "," + last + ")")));
+            assertEquals(2, statements.get(2).split("(?i) in ").length - 1);
+            assertEquals(1, jpqlSearch.count(User.class, options -> options.conditions("id=out=(-1,-2,-3,-4," + first + "," + last + ")")));
+        }
+    }
+
+    @Test
+    void testBoundParametersAreNamedApart() {
+        // unnamed criteria parameters are told apart by their identity hash code, which may collide
+        var parameters = new QueryParameters();
+        var builder = em.getCriteriaBuilder();
+        var names = new HashSet<String>();
+        for (int i = 0; i < 64; i++) {
+            var name = parameters.bind(builder, i).getName();
+            assertNotNull(name);
+            assertTrue(names.add(name));
+        }
+        assertEquals(1, omniSearch.count(User.class, options -> options.search("alice example").conditions("name==Al*;active==true")));
+    }
+
+    @Test
+    void testTemplateCacheReusesQueriesOfTheSameShape() {
+        try (var manager = templateEmf.createEntityManager()) {
+            assertTemplateCacheReusesQueriesOfTheSameShape(manager);
+        }
+    }
+
+    private void assertTemplateCacheReusesQueriesOfTheSameShape(EntityManager manager) {
+        var omniSearch = new JpaOmniSearch(manager);
+        var templates = new QueryTemplateCache();
+        omniSearch.setTemplateCache(templates);
+        var statistics = templateEmf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        assertEquals(1, omniSearch.count(User.class, options -> options.conditions("name==Alice")));
+        assertEquals(1, omniSearch.count(User.class, options -> options.conditions("name==Bob")));
+        assertEquals(List.of("Dave"), omniSearch.search(User.class, options -> options.search("charlie")).stream().map(User::getName).toList());
+        assertEquals(List.of("Bob"), omniSearch.search(User.class, options -> options.search("bob")).stream().map(User::getName).toList());
+        assertEquals(0, omniSearch.count(User.class, options -> options.conditions("name==Nobody")));
+        assertEquals(2, omniSearch.count(User.class, options -> options.conditions("name==Alice,name==Bob")));
+
+        assertEquals(new CacheStats(3, 3, 3), templates.stats());
+        assertEquals(3, statistics.getQueryPlanCacheHitCount());
+        statistics.setStatisticsEnabled(false);
+
+        var optimizations = new AtomicInteger();
+        var tools = new DefaultBuilderTools();
+        var optimizer = new DefaultNodeOptimizer();
+        tools.setNodeOptimizer((node, entity, adapter, builderTools) -> {
+            optimizations.incrementAndGet();
+            return optimizer.optimize(node, entity, adapter, builderTools);
+        });
+        var search = new JpaOmniSearch(manager, tools);
+        search.setTemplateCache(templates);
+        assertEquals(1, search.count(User.class, options -> options.conditions("name==Alice")));
+        assertEquals(List.of("Bob"), search.search(User.class, options -> options.conditions("name==Bob")).stream().map(User::getName).toList());
+        assertEquals(2, optimizations.get());
+
+        // in lists padded to the same size share their query, a change of the in list settings changes the shape
+        var ids = manager.createQuery("SELECT u.id FROM User u ORDER BY u.id", Long.class).getResultList();
+        var predicates = new DefaultPredicateBuilder();
+        var inListTools = new DefaultBuilderTools();
+        inListTools.setPredicateBuilder(predicates);
+        var inListSearch = new JpaOmniSearch(manager, inListTools);
+        var inListTemplates = new QueryTemplateCache();
+        inListSearch.setTemplateCache(inListTemplates);
+
+        assertEquals(3, inListSearch.count(User.class, options -> options.conditions("id=in=(" + ids.get(0) + "," + ids.get(1) + "," + ids.get(2) + ")")));
+        assertEquals(2, inListSearch.count(User.class, options -> options.conditions("id=in=(" + ids.get(0) + "," + ids.get(1) + ",-1,-2)")));
+        assertEquals(new CacheStats(1, 1, 1), inListTemplates.stats());
+
+        predicates.setInListPadding(false);
+        assertEquals(2, inListSearch.count(User.class, options -> options.conditions("id=in=(" + ids.get(0) + "," + ids.get(2) + ",-1)")));
+        predicates.setInListArrayFunction(TestFunctionContributor.IN_ARRAY);
+        assertEquals(1, inListSearch.count(User.class, options -> options.conditions("id=in=(" + ids.get(1) + ",-1,-2)")));
+        assertEquals(new CacheStats(1, 3, 3), inListTemplates.stats());
+
+        // the parameters of enum values are matched by the type they were created with
+        predicates.setInListArrayFunction(null);
+        assertEquals(2, inListSearch.count(User.class, options -> options.conditions("level=in=(HIGH,LOW)")));
+        assertEquals(2, inListSearch.count(User.class, options -> options.conditions("level=in=(MEDIUM,HIGH)")));
+        assertEquals(new CacheStats(2, 4, 4), inListTemplates.stats());
+    }
+
+    @Test
+    void testTemplateCacheIsSharedAcrossEntityManagersAndThreads() throws Exception {
+        var templates = new QueryTemplateCache();
+        var names = List.of("Alice", "Bob", "Dave", "Nobody");
+        var start = new CountDownLatch(1);
+
+        var futures = new ArrayList<Future<Boolean>>();
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (int thread = 0; thread < 8; thread++) {
+                var offset = thread;
+                futures.add(executor.submit(() -> {
+                    try (var manager = templateEmf.createEntityManager()) {
+                        var search = new JpaOmniSearch(manager);
+                        search.setTemplateCache(templates);
+                        start.await();
+                        for (int i = 0; i < 50; i++) {
+                            var name = names.get((offset + i) % names.size());
+                            var found = search.search(User.class, options -> options.conditions("name==" + name)).stream().map(User::getName).toList();
+                            if (!found.equals(name.equals("Nobody") ? List.of() : List.of(name))) {
+                                return false;
+                            }
+                            if (search.count(User.class, options -> options.conditions("name!=" + name)) != (name.equals("Nobody") ? 3 : 2)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            start.countDown();
+            for (var future : futures) {
+                assertTrue(future.get(30, TimeUnit.SECONDS));
+            }
+        }
+
+        var stats = templates.stats();
+        assertEquals(2, stats.size());
+        assertEquals(8 * 50 * 2, stats.hits() + stats.misses());
+        assertTrue(stats.hits() >= 8 * 50 * 2 - 16);
+    }
+
+    @Test
+    void testJpqlSearchMatchesTheCriteriaSearch() {
+        persistHouses();
+        var jpqlSearch = new JpqlOmniSearch(em);
+        var texts = new QueryTemplateCache();
+        jpqlSearch.setTemplateCache(texts);
+
+        List<Supplier<OmniSearchOptions>> requests = List.of(
+                () -> new OmniSearchOptions().search("alice").sort(new Sort.Order("name", true)),
+                () -> new OmniSearchOptions().search("example high"),
+                () -> new OmniSearchOptions().search("admin"),
+                () -> new OmniSearchOptions().search("100%_"),
+                () -> new OmniSearchOptions().search("Last1").joins("contacts"),
+                () -> new OmniSearchOptions().search("BOB").searchMode(MatchMode.EXACT),
+                () -> new OmniSearchOptions().conditions("name==Alice,email==*.net;active==true"),
+                () -> new OmniSearchOptions().conditions("name!=Alice;level=in=(LOW,MEDIUM)").sort(new Sort.Order("email", false)),
+                () -> new OmniSearchOptions().conditions("name=ilike=ALI*,name=nilike=*e"),
+                () -> new OmniSearchOptions().conditions("createdAt=between=(2024-01-01,2024-12-31);email!=bob*"),
+                () -> new OmniSearchOptions().conditions("createdAt>=2024-06-30;level=out=(HIGH)"),
+                () -> new OmniSearchOptions().conditions("houses.country.code==US;houses.numberOfRooms>2").sort(new Sort.Order("houses.numberOfRooms", true)),
+                () -> new OmniSearchOptions().search("eve").conditions("houses.country.countinent.code==NA").pagination(0, 1),
+                () -> new OmniSearchOptions().conditions("name==Alice;name==Bob")
+        );
+
+        for (var request : requests) {
+            var expected = omniSearch.search(User.class, request.get()).stream().map(User::getId).toList();
+            assertEquals(expected, jpqlSearch.search(User.class, request.get()).stream().map(User::getId).toList());
+            assertEquals(omniSearch.count(User.class, request.get()), jpqlSearch.count(User.class, request.get()));
+            assertEquals(omniSearch.count(User.class, request.get().countMode(CountMode.bounded(1))), jpqlSearch.count(User.class, request.get().countMode(CountMode.bounded(1))));
+        }
+        var rendered = texts.stats();
+        assertEquals(3L * requests.size(), rendered.hits() + rendered.misses());
+        assertEquals(rendered.misses(), rendered.size());
+
+        assertEquals(0, jpqlSearch.count(User.class, options -> options.conditions("name==Bob;name==Dave")));
+        assertEquals(List.of("Frank"), jpqlSearch.search(User.class, options -> options.search("frank")).stream().map(User::getName).toList());
+        assertEquals(new CacheStats(rendered.hits() + 2, rendered.misses(), rendered.size()), texts.stats());
+
+        assertThrows(IllegalArgumentException.class, () -> jpqlSearch.count(User.class, options -> options.conditions("unknown==1")));
+        assertThrows(IllegalArgumentException.class, () -> jpqlSearch.count(User.class, options -> options.conditions("id=ilike=1")));
+    }
+
+    @Test
+    void testCachingSearchServesRepeatedOperations() {
+        var cachingSearch = new CachingOmniSearch(omniSearch, new InMemorySearchResultStore(16, Duration.ofMinutes(1)));
+
+        var first = cachingSearch.search(User.class, options -> options.conditions("active==true;level=in=(HIGH,LOW)").sort(new Sort.Order("name", true)));
+        assertEquals(List.of("Alice", "Dave"), first.stream().map(User::getName).toList());
+        assertThrows(UnsupportedOperationException.class, () -> first.add(new User()));
+        assertSame(first, cachingSearch.search(User.class, options -> options.conditions(" level=in=(LOW,HIGH);active==true").sort(new Sort.Order("name", true))));
+        assertNotSame(first, cachingSearch.search(User.class, options -> options.conditions("active==true;level=in=(HIGH,LOW)").sort(new Sort.Order("name", false))));
+
+        assertEquals(2, cachingSearch.count(User.class, options -> options.search("example.com")));
+        assertEquals(2, cachingSearch.count(User.class, options -> options.search(" example.com ")));
+        assertEquals(new CacheStats(2, 3, 3), cachingSearch.stats());
+
+        em.getTransaction().begin();
+        em.persist(User.builder().name("Carol").email("carol@example.com").build());
+        em.getTransaction().commit();
+
+        assertEquals(2, cachingSearch.count(User.class, options -> options.search("example.com")));
+        cachingSearch.invalidate(User.class);
+        assertEquals(3, cachingSearch.count(User.class, options -> options.search("example.com")));
+        assertEquals(new CacheStats(3, 4, 1), cachingSearch.stats());
+
+        // cached entities are not managed by the entity manager that loaded them
+        var cached = cachingSearch.search(User.class, options -> options.conditions("name==Alice"));
+        assertFalse(em.contains(cached.getFirst()));
+        assertFalse(em.contains(cachingSearch.searchPage(User.class, options -> options.conditions("name==Alice")).content().getFirst()));
+    }
+
+    @Test
+    void testCachingSearchDropsResultsLoadedDuringAnInvalidation() {
+        var store = new InMemorySearchResultStore(16, Duration.ofMinutes(1));
+        var delegate = new JpaOmniSearch(em) {
+            @Override
+            public <E> long count(Class<E> entityClass, OmniSearchBaseOptions options) {
+                var count = super.count(entityClass, options);
+                // the entity changes after the count was read, but before it is stored
+                store.invalidate(entityClass);
+                return count;
+            }
+        };
+        var cachingSearch = new CachingOmniSearch(delegate, store);
+
+        assertEquals(3, cachingSearch.count(User.class, options -> options.search("example")));
+        assertEquals(0, store.stats().size());
+        assertEquals(3, cachingSearch.count(User.class, options -> options.search("example")));
+        assertEquals(new CacheStats(0, 2, 0), store.stats());
+
+        var generation = store.generation(User.class);
+        store.clear();
+        assertFalse(store.put(SearchFingerprint.of("count", User.class, new OmniSearchBaseOptions()), 3L, generation));
+        assertTrue(store.put(SearchFingerprint.of("count", User.class, new OmniSearchBaseOptions()), 3L, store.generation(User.class)));
+    }
+
+    @Test
+    void testCoalescingSearchRunsIdenticalConcurrentOperationsOnce() throws Exception {
+        var release = new CountDownLatch(1);
+        var delegate = new JpaOmniSearch(em) {
+            @Override
+            public <E> List<Map<String, Object>> search(Class<E> entityClass, List<String> properties, OmniSearchOptions options) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.search(entityClass, properties, options);
+            }
+        };
+        var coalescingSearch = new CoalescingOmniSearch(delegate);
+        var inFlight = coalescingSearch.getInFlight();
+
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            var results = new ArrayList<Future<List<Map<String, Object>>>>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> coalescingSearch.search(User.class, List.of("name"), options -> options.conditions("active==true"))));
+            }
+
+            var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (inFlight.getCoalesced() < 7 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            var first = results.getFirst().get();
+            assertEquals(2, first.size());
+            assertThrows(UnsupportedOperationException.class, first::clear);
+            for (var result : results) {
+                assertSame(first, result.get());
+            }
+        }
+
+        assertEquals(1, inFlight.getExecuted());
+        assertEquals(7, inFlight.getCoalesced());
+        assertEquals(0, inFlight.size());
+        assertEquals(2, coalescingSearch.search(User.class, List.of("name"), options -> options.conditions("active==true")).size());
+        assertEquals(2, inFlight.getExecuted());
+
+        // entities stay in the persistence context of their caller, entity searches are never coalesced
+        var users = coalescingSearch.search(User.class, options -> options.search("example.com"));
+        assertTrue(users.stream().allMatch(em::contains));
+        assertEquals(2, inFlight.getExecuted());
+    }
+
+    @Test
+    void testCoalescingSearchRunsItsOwnOperationAfterTheTimeout() throws Exception {
+        var release = new CountDownLatch(1);
+        var calls = new AtomicInteger();
+        var delegate = new JpaOmniSearch(em) {
+            @Override
+            public <E> long count(Class<E> entityClass, OmniSearchBaseOptions options) {
+                if (calls.getAndIncrement() == 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.count(entityClass, options);
+            }
+        };
+        var inFlight = new CoalescingOmniSearch.InFlight(Duration.ofMillis(50));
+        var coalescingSearch = new CoalescingOmniSearch(delegate, inFlight);
+
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            var leader = executor.submit(() -> coalescingSearch.count(User.class, options -> options.search("example.com")));
+            var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (inFlight.size() == 0 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+
+            assertEquals(2, coalescingSearch.count(User.class, options -> options.search("example.com")));
+            assertEquals(2, inFlight.getExecuted());
+            assertEquals(1, inFlight.getCoalesced());
+
+            Thread.currentThread().interrupt();
+            assertThrows(IllegalStateException.class, () -> coalescingSearch.count(User.class, options -> options.search("example.com")));
+            assertTrue(Thread.interrupted());
+
+            release.countDown();
+            assertEquals(2, leader.get());
+        }
+        assertEquals(0, inFlight.size());
+    }
+
+    @Test
+    void testSearchMetricsRecordPhasesAndPercentiles() {
+        var metrics = new HistogramSearchMetrics();
+        omniSearch.setMetrics(metrics);
+
+        assertEquals(1, omniSearch.search(User.class, options -> options.conditions("name==Alice;email==*example.com*")).size());
+        var page = omniSearch.searchPage(User.class, new OmniSearchOptions()
+                .sort(new Sort.Order("name", true))
+                .pagination(0, 2));
+        assertEquals(3, page.total());
+        assertThrows(IllegalArgumentException.class, () -> omniSearch.count(User.class, options -> options.conditions("unknown==1")));
+
+        // the failed count is measured up to its failure, the count of the page as part of the page
+        assertEquals(3, metrics.snapshot(User.class, SearchPhase.TOTAL).count());
+        assertEquals(2, metrics.snapshot(User.class, SearchPhase.QUERY_EXECUTION).count());
+        assertEquals(3, metrics.snapshot(User.class, SearchPhase.PREDICATE_BUILD).count());
+        assertEquals(2, metrics.snapshot(User.class, SearchPhase.CONDITIONS).count());
+        assertEquals(1, metrics.snapshot(User.class, SearchPhase.ARGUMENT_PARSING).count());
+        assertEquals(2, metrics.snapshot(User.class, HistogramSearchMetrics.PREDICATES).max());
+        assertEquals(2, metrics.snapshot(User.class, HistogramSearchMetrics.RESULTS).max());
+        assertEquals(3, metrics.snapshot(User.class, HistogramSearchMetrics.ROWS).max());
+        assertEquals(1, metrics.errors(User.class));
+
+        // a stream is measured until it is closed, with the entities consumed by then as its results
+        var rows = metrics.snapshot(User.class, HistogramSearchMetrics.RESULTS).count();
+        try (var stream = omniSearch.stream(User.class, options -> options.sort(new Sort.Order("name", true)))) {
+            assertEquals(List.of("Alice"), stream.limit(1).map(User::getName).toList());
+            assertEquals(3, metrics.snapshot(User.class, SearchPhase.TOTAL).count());
+        }
+        assertEquals(4, metrics.snapshot(User.class, SearchPhase.TOTAL).count());
+        assertEquals(rows + 1, metrics.snapshot(User.class, HistogramSearchMetrics.RESULTS).count());
+        assertEquals(3, metrics.snapshot(User.class, SearchPhase.QUERY_EXECUTION).count());
+
+        var histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        var snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.count());
+        assertEquals(1000, snapshot.max());
+        assertEquals(500, snapshot.p50(), 500 * LatencyHistogram.RELATIVE_ERROR);
+        assertEquals(990, snapshot.p99(), 990 * LatencyHistogram.RELATIVE_ERROR);
+        assertEquals(999, snapshot.p999(), 999 * LatencyHistogram.RELATIVE_ERROR);
+    }
+
+    @Test
+    void testComparisonsOnTheSameCollectionShareTheJoin() {
+        persistHouses();
+
+        var options = new OmniSearchOptions()
+                .conditions("houses.country.code==US;houses.numberOfRooms>2")
+                .sort(new Sort.Order("houses.numberOfRooms", true));
+
+        List<User> result = omniSearch.search(User.class, options);
+        assertEquals(1, result.size());
+        assertEquals("Eve", result.getFirst().getName());
+    }
+
+    @Test
+    void testSearchConditionsAndSortShareOneJoinOfACollection() {
+        persistHouses();
+
+        var statements = new ArrayList<String>();
+        var sessionFactory = emf.unwrap(SessionFactory.class);
+        try (var session = sessionFactory.withOptions().statementInspector(sql -> {
+            statements.add(sql);
+            return sql;
+        }).openSession()) {
+            var searches = List.of(new JpaOmniSearch(session), new JpqlOmniSearch(session));
+            for (var search : searches) {
+                statements.clear();
+
+                // the search term, the condition and the sort compare the same house
+                var elmWithFourRooms = search.search(User.class, options -> options
+                        .search("Elm")
+                        .joins("houses")
+                        .conditions("houses.numberOfRooms==4")
+                        .sort(new Sort.Order("houses.numberOfRooms", true)));
+                assertEquals(List.of("Eve"), elmWithFourRooms.stream().map(User::getName).toList());
+                assertEquals(0, search.count(User.class, options -> options
+                        .search("Elm")
+                        .joins("houses")
+                        .conditions("houses.numberOfRooms==3")));
+
+                for (var statement : statements) {
+                    assertEquals(1, statement.split("(?i) join house_test ").length - 1, statement);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testJpqlSearchReportsTheSamePhasesAsTheCriteriaSearch() {
+        var criteriaMetrics = new HistogramSearchMetrics();
+        var jpqlMetrics = new HistogramSearchMetrics();
+        omniSearch.setMetrics(criteriaMetrics);
+        var jpqlSearch = new JpqlOmniSearch(em);
+        jpqlSearch.setMetrics(jpqlMetrics);
+
+        for (var search : List.of(omniSearch, jpqlSearch)) {
+            assertEquals(1, search.search(User.class, options -> options.conditions("name==Alice;email==*example.com*")).size());
+            assertEquals(3, search.searchPage(User.class, new OmniSearchOptions()
+                    .sort(new Sort.Order("name", true))
+                    .pagination(0, 2)).total());
+            assertThrows(ArgumentFormatException.class, () -> search.count(User.class, options -> options.conditions("createdAt==yesterday")));
+            try (var stream = search.stream(User.class, options -> options.sort(new Sort.Order("name", true)))) {
+                assertEquals(3, stream.count());
+            }
+        }
+
+        for (var phase : SearchPhase.values()) {
+            assertEquals(criteriaMetrics.snapshot(User.class, phase).count(), jpqlMetrics.snapshot(User.class, phase).count(), phase.name());
+        }
+        for (var measure : List.of(HistogramSearchMetrics.PREDICATES, HistogramSearchMetrics.RESULTS, HistogramSearchMetrics.ROWS)) {
+            assertEquals(criteriaMetrics.snapshot(User.class, measure).max(), jpqlMetrics.snapshot(User.class, measure).max(), measure);
+        }
+        assertEquals(1, jpqlMetrics.errors(User.class));
+
+        var tools = new DefaultBuilderTools();
+        tools.setCollectionStrategy(CollectionStrategy.EXISTS);
+        assertThrows(UnsupportedOperationException.class, () -> new JpqlOmniSearch(em, tools));
+    }
+
+    @Test
+    void testExistsStrategyKeepsOneRowPerEntity() {
+        persistHouses();
+
+        var tools = new DefaultBuilderTools();
+        tools.setCollectionStrategy(CollectionStrategy.EXISTS);
+        var existsSearch = new JpaOmniSearch(em, tools);
+
+        var byRooms = new OmniSearchOptions()
+                .conditions("houses.numberOfRooms>2")
+                .sort(new Sort.Order("name", true));
+
+        try (var stream = existsSearch.stream(User.class, byRooms)) {
+            assertEquals(List.of("Eve", "Frank"), stream.map(User::getName).toList());
+        }
+        assertEquals(2, existsSearch.count(User.class, byRooms));
+
+        var byRole = new OmniSearchOptions()
+                .search("USER")
+                .sort(new Sort.Order("name", true));
+
+        try (var stream = existsSearch.stream(User.class, byRole)) {
+            assertEquals(List.of("Alice", "Dave", "Eve", "Frank"), stream.map(User::getName).toList());
+        }
+
+        var byHouse = new OmniSearchOptions()
+                .search("Elm")
+                .joins("houses");
+
+        assertEquals(List.of("Eve"), existsSearch.search(User.class, byHouse).stream().map(User::getName).toList());
+        assertEquals(1, existsSearch.count(User.class, byHouse));
+    }
+
+    @Test
+    void testExistsStrategyComparisonsOnACollectionDoNotContradict() {
+        persistHouses();
+
+        var tools = new DefaultBuilderTools();
+        tools.setCollectionStrategy(CollectionStrategy.EXISTS);
+        var existsSearch = new JpaOmniSearch(em, tools);
+
+        // every comparison has its own subquery, so each may match a different house
+        assertEquals(1, existsSearch.count(User.class, options -> options.conditions("houses.numberOfRooms==2;houses.numberOfRooms==3")));
+        assertEquals(1, existsSearch.count(User.class, options -> options.conditions("houses.name==House4;houses.name==House5")));
+        assertEquals(1, existsSearch.count(User.class, options -> options.conditions("houses.name==House4;houses.name!=House4")));
+
+        // the shared join compares a single house
+        assertEquals(0, omniSearch.count(User.class, options -> options.conditions("houses.numberOfRooms==2;houses.numberOfRooms==3")));
+    }
+
+    @Test
+    void testIdFirstPaginationPagesEntitiesNotJoinedRows() {
+        persistHouses();
+        omniSearch.setIdFirstPagination(true);
+
+        var options = new OmniSearchOptions()
+                .conditions("houses.numberOfRooms>2")
+                .sort(new Sort.Order("name", true));
+
+        var first = omniSearch.search(User.class, options.pagination(0, 1));
+        var second = omniSearch.search(User.class, options.pagination(1, 1));
+
+        assertEquals(List.of("Eve"), first.stream().map(User::getName).toList());
+        assertEquals(List.of("Frank"), second.stream().map(User::getName).toList());
+        assertEquals(2, omniSearch.searchPage(User.class, options.pagination(0, 5)).total());
+
+        // sorted by the rooms of their houses, Frank has the smallest one and Eve the largest one; the sort shares
+        // the join of the condition, so only the houses it matches are sorted by
+        var byRooms = new OmniSearchOptions()
+                .conditions("houses.numberOfRooms>1")
+                .pagination(0, 2);
+
+        var ascending = omniSearch.search(User.class, byRooms.sort(new Sort.Order("houses.numberOfRooms", true)));
+        assertEquals(List.of("Frank", "Eve"), ascending.stream().map(User::getName).toList());
+        var descending = omniSearch.search(User.class, byRooms.sort(new Sort.Order("houses.numberOfRooms", false)));
+        assertEquals(List.of("Eve", "Frank"), descending.stream().map(User::getName).toList());
+    }
+
+    @Test
+    void testSearchProjections() {
+        var options = new OmniSearchOptions()
+                .conditions("active==true")
+                .sort(new Sort.Order("name", true));
+
+        var summaries = omniSearch.search(User.class, UserSummary.class, options);
+        assertEquals(List.of(
+                new UserSummary("Alice", "alice@example.com", User.Level.HIGH),
+                new UserSummary("Dave", "charlie@example.net", User.Level.LOW)
+        ), summaries);
+
+        var rows = omniSearch.search(User.class, List.of("name", "level"), options.pagination(0, 1));
+        assertEquals(List.of(Map.of("name", "Alice", "level", User.Level.HIGH)), rows);
+    }
+
+    record UserSummary(String name, String email, User.Level level) {
+    }
+
+    @Test
+    void testFetchPlanLoadsPlannedAssociations() {
+        persistHouses();
+        em.clear();
+
+        var options = new OmniSearchOptions()
+                .conditions("houses.numberOfRooms>2")
+                .sort(new Sort.Order("name", true))
+                .pagination(0, 5)
+                .fetch("houses.country", "roles");
+
+        var result = omniSearch.search(User.class, options);
+        var persistenceUnitUtil = emf.getPersistenceUnitUtil();
+
+        assertEquals(2, result.size());
+        for (var user : result) {
+            assertTrue(persistenceUnitUtil.isLoaded(user, "houses"));
+            assertTrue(persistenceUnitUtil.isLoaded(user, "roles"));
+            assertFalse(persistenceUnitUtil.isLoaded(user, "contacts"));
+            for (var house : user.getHouses()) {
+                assertTrue(persistenceUnitUtil.isLoaded(house, "country"));
+            }
+        }
+    }
+
+    @Test
+    void testAsyncSearchRunsOnItsOwnEntityManagers() {
+        try (var asyncSearch = new JpaAsyncOmniSearch(emf)) {
+            var options = new OmniSearchOptions()
+                    .conditions("active==true")
+                    .sort(new Sort.Order("name", true))
+                    .pagination(0, 1);
+
+            var page = asyncSearch.searchPageAsync(User.class, options).join();
+            assertEquals(List.of("Alice"), page.content().stream().map(User::getName).toList());
+            assertEquals(2, page.total());
+
+            assertEquals(3, asyncSearch.countAsync(User.class, new OmniSearchBaseOptions()).join());
+        }
+    }
+
+    @Test
+    void testBatchReturnsResultsInRequestOrder() {
+        var active = SearchRequest.count(User.class, new OmniSearchBaseOptions().conditions("active==true"));
+        var low = SearchRequest.search(User.class, new OmniSearchOptions().conditions("level==LOW"));
+        var all = SearchRequest.count(User.class, new OmniSearchBaseOptions());
+        var requests = List.of(active, low, all);
+
+        var results = omniSearch.batch(requests);
+        assertEquals(2L, results.get(active));
+        assertEquals(List.of("Dave"), results.get(low).stream().map(User::getName).toList());
+        assertEquals(3L, results.get(all));
+        assertEquals(List.of(2L, results.get(low), 3L), results.asList());
+        assertThrows(IllegalArgumentException.class, () -> results.get(SearchRequest.count(User.class, new OmniSearchBaseOptions())));
+
+        try (var asyncSearch = new JpaAsyncOmniSearch(emf)) {
+            asyncSearch.setBatchConcurrency(2);
+            var asyncResults = asyncSearch.batchAsync(requests).join();
+            assertEquals(2L, asyncResults.get(active));
+            assertEquals(1, asyncResults.get(low).size());
+            assertEquals(3L, asyncResults.get(all));
+        }
+    }
+
     @Test
     void testSearchWithHouses() {
         em.getTransaction().begin();
@@ -259,4 +1239,84 @@ class JpaOmniSearchTest {
         assertEquals(2, result.size());
     }
 
+    private void persistHouses() {
+        em.getTransaction().begin();
+        var countinentNA = Countinent.builder()
+                .code("NA")
+                .name("North America")
+                .description("North American continent")
+                .build();
+
+        var countinentSA = Countinent.builder()
+                .code("SA")
+                .name("South America")
+                .description("South American continent")
+                .build();
+
+        em.persist(countinentNA);
+        em.persist(countinentSA);
+
+        var countryUS = Country.builder().code("US").name("United States").countinent(countinentNA).build();
+        var countryCA = Country.builder().code("CA").name("Canada").countinent(countinentSA).build();
+        var countryMX = Country.builder().code("MX").name("Mexico").countinent(countinentSA).build();
+
+        em.persist(countryUS);
+        em.persist(countryCA);
+        em.persist(countryMX);
+
+        var user1 = User.builder()
+                .name("Eve")
+                .email("eve@ovi.com")
+                .active(true)
+                .level(User.Level.HIGH)
+                .roles(Set.of(User.Role.USER))
+                .houses(List.of(
+                        House.builder()
+                                .name("House1")
+                                .address("123 Main St")
+                                .numberOfRooms(3)
+                                .country(countryUS)
+                                .build(),
+                        House.builder()
+                                .name("House2")
+                                .address("456 Elm St")
+                                .numberOfRooms(4)
+                                .country(countryCA)
+                                .build(),
+                        House.builder()
+                                .name("House3")
+                                .address("789 Oak St")
+                                .numberOfRooms(5)
+                                .country(countryMX)
+                                .build()
+                ))
+                .build();
+
+        var user2 = User.builder()
+                .name("Frank")
+                .email("frank@ovi.com")
+                .active(true)
+                .level(User.Level.MEDIUM)
+                .roles(Set.of(User.Role.USER))
+                .houses(List.of(
+                        House.builder()
+                                .name("House4")
+                                .address("321 Pine St")
+                                .numberOfRooms(2)
+                                .country(countryUS)
+                                .build(),
+                        House.builder()
+                                .name("House5")
+                                .address("654 Maple St")
+                                .numberOfRooms(3)
+                                .country(countryCA)
+                                .build()
+                ))
+                .build();
+
+        em.persist(user1);
+        em.persist(user2);
+        em.getTransaction().commit();
+    }
+
 }
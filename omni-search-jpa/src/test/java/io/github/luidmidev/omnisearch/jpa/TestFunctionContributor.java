@@ -0,0 +1,27 @@
+package io.github.luidmidev.omnisearch.jpa;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+public class TestFunctionContributor implements FunctionContributor {
+
+    public static final String COUNT_OVER = "count_over";
+    public static final String IN_ARRAY = "in_array";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        var longType = functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.LONG);
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(COUNT_OVER, "count(*) over()")
+                .setExactArgumentCount(0)
+                .setInvariantType(longType)
+                .register();
+        var booleanType = functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(IN_ARRAY, "array_contains(?1,?2)")
+                .setExactArgumentCount(2)
+                .setInvariantType(booleanType)
+                .register();
+    }
+}
@@ -1,5 +1,8 @@
 package io.github.luidmidev.omnisearch.jpa.entities;
 
+import io.github.luidmidev.omnisearch.core.SearchMatch;
+import io.github.luidmidev.omnisearch.core.schemas.CaseStrategy;
+import io.github.luidmidev.omnisearch.core.schemas.MatchMode;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -22,6 +25,8 @@ public class Contacts {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String firstName;
+
+    @SearchMatch(value = MatchMode.EXACT, caseStrategy = CaseStrategy.COLLATION)
     private String lastName;
 
 }